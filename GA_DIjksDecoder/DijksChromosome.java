@@ -1,14 +1,18 @@
 package GA_DIjksDecoder;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class DijksChromosome implements Comparable<DijksChromosome> {
+import GA_Engine.Genome;
+
+public class DijksChromosome implements Genome<DijksChromosome> {
     public double[] genes;
     public double fitness = -1;
     public int rows, cols;
     public Object path;
+    DijksDecoder.VirtualCosts virtualCosts; // Cached by the decoder, dropped when genes change
     
-    private static final Random rand = new Random();
+    private static Random rand() { return ThreadLocalRandom.current(); }
 
     public static final int MUTATION_RANDOM = 0;
     public static final int MUTATION_FLIP   = 1;
@@ -22,8 +26,9 @@ public class DijksChromosome implements Comparable<DijksChromosome> {
 
     public void randomInit() {
         for (int i = 0; i < genes.length; i++) {
-            genes[i] = rand.nextDouble();
+            genes[i] = rand().nextDouble();
         }
+        virtualCosts = null;
     }
 
     public double getPriority(int r, int c) {
@@ -32,27 +37,27 @@ public class DijksChromosome implements Comparable<DijksChromosome> {
 
     public void mutate(double mutationRate, int mode) {
         for (int i = 0; i < genes.length; i++) {
-            if (rand.nextDouble() < mutationRate) {   
+            if (rand().nextDouble() < mutationRate) {   
                 switch (mode) {
                     case MUTATION_RANDOM:
-                        genes[i] = rand.nextDouble();
+                        genes[i] = rand().nextDouble();
                         break;
                     case MUTATION_FLIP:
                         if (genes[i] > 0.5) {
-                            genes[i] = rand.nextDouble() * 0.2;
+                            genes[i] = rand().nextDouble() * 0.2;
                         } else {
-                            genes[i] = 0.8 + (rand.nextDouble() * 0.2);
+                            genes[i] = 0.8 + (rand().nextDouble() * 0.2);
                         }
                         break;
                     case MUTATION_HYBRID:
-                        if (rand.nextDouble() < 0.2) { 
+                        if (rand().nextDouble() < 0.2) { 
                             if (genes[i] > 0.5) {
-                                genes[i] = rand.nextDouble() * 0.2;
+                                genes[i] = rand().nextDouble() * 0.2;
                             } else {
-                                genes[i] = 0.8 + (rand.nextDouble() * 0.2);
+                                genes[i] = 0.8 + (rand().nextDouble() * 0.2);
                             }
                         } else {
-                            double change = (rand.nextDouble() - 0.5) * 0.1;
+                            double change = (rand().nextDouble() - 0.5) * 0.1;
                             genes[i] += change;
                             if (genes[i] < 0.0001) genes[i] = 0.0001;
                             if (genes[i] > 1.0) genes[i] = 1.0;
@@ -61,6 +66,7 @@ public class DijksChromosome implements Comparable<DijksChromosome> {
                 }
                 
                 this.fitness = -1;
+                this.virtualCosts = null;
             }
         }
     }
@@ -68,6 +74,7 @@ public class DijksChromosome implements Comparable<DijksChromosome> {
     public void setGene(int r, int c, double value) {
         if (r >= 0 && r < rows && c >= 0 && c < cols) {
             genes[r * cols + c] = value;
+            virtualCosts = null;
         }
     }
     
@@ -75,9 +82,16 @@ public class DijksChromosome implements Comparable<DijksChromosome> {
         DijksChromosome c = new DijksChromosome(rows, cols);
         System.arraycopy(this.genes, 0, c.genes, 0, genes.length);
         c.fitness = this.fitness;
+        c.virtualCosts = this.virtualCosts; // Same genes, and the cache is never modified in place
         return c;
     }
 
+    public double fitness() { return fitness; }
+
+    public void setFitness(double fitness) { this.fitness = fitness; }
+
+    public double[] genes() { return genes; }
+
     @Override
     public int compareTo(DijksChromosome other) {
         return Double.compare(this.fitness, other.fitness);
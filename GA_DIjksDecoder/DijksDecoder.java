@@ -2,135 +2,188 @@ package GA_DIjksDecoder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.PriorityQueue;
 
+import MazeSolverAlgo.LandmarkTable;
+import Struct.DecodeWorkspace;
 import Struct.MazeMap;
 import Struct.Point;
 
 public class DijksDecoder {
 
-    public static double ALPHA = 4; 
-    private static class Node implements Comparable<Node> {
-        int r, c;
-        double gVirtual;
-        double realCost; 
-        double h;        
-        Node parent;
-
-        public Node(int r, int c, double gVirtual, double realCost, double h, Node parent) {
-            this.r = r; this.c = c;
-            this.gVirtual = gVirtual;
-            this.realCost = realCost;
-            this.h = h;
-            this.parent = parent;
-        }
+    public static final double DEFAULT_ALPHA = 4;
+    public static final DijksDecoder DEFAULT = new DijksDecoder(DEFAULT_ALPHA);
 
-        public double getF() { return gVirtual + h; }
+    // Exponent applied to gene priorities: entering a cell costs weight / priority^alpha.
+    public final double alpha;
 
-        @Override
-        public int compareTo(Node other) {
-            return Double.compare(this.getF(), other.getF());
-        }
+    public DijksDecoder(double alpha) {
+        this.alpha = alpha;
     }
 
     public static double calculateFitness(MazeMap map, DijksChromosome chromo, boolean useHeuristic) {
-        int rows = map.rows; int cols = map.cols;
-        double[][] bestVirtual = new double[rows][cols];
-        for(int i=0; i<rows; i++) for(int j=0; j<cols; j++) bestVirtual[i][j] = Double.MAX_VALUE;
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Point start = map.start; Point goal = map.goal;
-        double startH = useHeuristic ? manhattan(start, goal) : 0;
-        pq.add(new Node(start.r, start.c, 0, 0, startH, null));
-        bestVirtual[start.r][start.c] = 0;
-        int nodesExplored = 0;
-        int maxNodes = rows * cols * 20;
-        while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            nodesExplored++;
-            if (nodesExplored > maxNodes) return 10000 + (nodesExplored * 0.1);
-            if (current.r == goal.r && current.c == goal.c) return current.realCost;
-            if (current.gVirtual > bestVirtual[current.r][current.c]) continue;
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
-            for (int[] dir : dirs) {
-                int nr = current.r + dir[0];
-                int nc = current.c + dir[1];
-                if (!map.isValid(nr, nc)) continue;
-                int weight = map.getWeight(nr, nc);
-                double priority = chromo.getPriority(nr, nc);
-                if (priority < 0.0001) priority = 0.0001;
-                double factor = Math.pow(priority, ALPHA); 
-                double moveCostVirtual = weight / factor;
-                double newGVirtual = current.gVirtual + moveCostVirtual;
-                double newRealCost = current.realCost + weight;
-                if (newGVirtual < bestVirtual[nr][nc]) {
-                    bestVirtual[nr][nc] = newGVirtual;
-                    double newH = useHeuristic ? manhattan(new Point(nr, nc), goal) : 0;
-                    pq.add(new Node(nr, nc, newGVirtual, newRealCost, newH, null));
-                }
-            }
-        }
-        return 10000 + (nodesExplored * 0.1);
+        return DEFAULT.fitness(map, chromo, useHeuristic);
     }
 
     public static List<Point> getPath(MazeMap map, DijksChromosome chromo, boolean useHeuristic) {
-        int rows = map.rows; int cols = map.cols;
-        double[][] bestVirtual = new double[rows][cols];
-        for(int i=0; i<rows; i++) for(int j=0; j<cols; j++) bestVirtual[i][j] = Double.MAX_VALUE;
-
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Point start = map.start; Point goal = map.goal;
+        return DEFAULT.path(map, chromo, useHeuristic);
+    }
 
-        double startH = useHeuristic ? manhattan(start, goal) : 0;
-        pq.add(new Node(start.r, start.c, 0, 0, startH, null));
-        bestVirtual[start.r][start.c] = 0;
+    public double fitness(MazeMap map, DijksChromosome chromo, boolean useHeuristic) {
+        return fitness(map, chromo, useHeuristic, Double.POSITIVE_INFINITY);
+    }
 
-        int nodesExplored = 0;
-        int maxNodes = rows * cols * 20;
+    // Bounded evaluation: once the decoded path provably costs more than cutoff, the search stops
+    // and returns that lower bound (> cutoff) instead. Results at or below cutoff are exact.
+    public double fitness(MazeMap map, DijksChromosome chromo, boolean useHeuristic, double cutoff) {
+        return fitness(map, chromo, useHeuristic, cutoff, fullBudget(map));
+    }
 
-        while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            nodesExplored++;
-            if (nodesExplored > maxNodes) break;
+    // Full-fidelity node budget.
+    public static int fullBudget(MazeMap map) { return map.rows * map.cols * 20; }
+
+    // With maxNodes below the full budget a search that runs out is scored by its most advanced
+    // node instead (real cost so far + landmark bound of the node closest to the goal), and
+    // ws.truncated is set. That is a rough estimate for ranking, not a fitness.
+    public double fitness(MazeMap map, DijksChromosome chromo, boolean useHeuristic, double cutoff, int maxNodes) {
+        DecodeWorkspace ws = DecodeWorkspace.acquire(map.size());
+        switch (search(map, chromo, useHeuristic, cutoff, maxNodes, ws)) {
+            case REACHED:
+            case CUT:
+            case TRUNCATED: return ws.poppedReal;
+            default: return 10000 + (ws.expanded * 0.1);
+        }
+    }
 
-            if (current.r == goal.r && current.c == goal.c) return backtrack(current);
-            if (current.gVirtual > bestVirtual[current.r][current.c]) continue;
+    public List<Point> path(MazeMap map, DijksChromosome chromo, boolean useHeuristic) {
+        DecodeWorkspace ws = DecodeWorkspace.acquire(map.size());
+        if (search(map, chromo, useHeuristic, Double.POSITIVE_INFINITY, fullBudget(map), ws) != REACHED) return new ArrayList<>();
+        return backtrack(map, ws);
+    }
 
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
-            for (int[] dir : dirs) {
-                int nr = current.r + dir[0];
-                int nc = current.c + dir[1];
-                if (!map.isValid(nr, nc)) continue;
+    // --- Virtual costs ---
 
-                int weight = map.getWeight(nr, nc);
-                double priority = chromo.getPriority(nr, nc);
-                if (priority < 0.0001) priority = 0.0001;
+    // Virtual cost of entering every cell (dense layout) for one chromosome, map and alpha.
+    // Immutable once built; the chromosome drops it whenever its genes change.
+    static final class VirtualCosts {
+        final MazeMap map;
+        final double alpha;
+        final double[] cost;
 
-                double factor = Math.pow(priority, ALPHA);
-                double moveCostVirtual = weight / factor; 
+        VirtualCosts(MazeMap map, double alpha, double[] cost) {
+            this.map = map;
+            this.alpha = alpha;
+            this.cost = cost;
+        }
+    }
 
-                double newGVirtual = current.gVirtual + moveCostVirtual;
-                double newRealCost = current.realCost + weight;
+    double[] virtualCosts(MazeMap map, DijksChromosome chromo) {
+        VirtualCosts vc = chromo.virtualCosts;
+        if (vc != null && vc.map == map && vc.alpha == alpha) return vc.cost;
+        double[] genes = chromo.genes;
+        double[] cost = new double[genes.length];
+        // Small integer exponents are plain multiplications, which the JIT can unroll and vectorise.
+        int k = (alpha == Math.rint(alpha) && alpha >= 1 && alpha <= 4) ? (int) alpha : 0;
+        for (int i = 0; i < genes.length; i++) {
+            double p = genes[i];
+            if (p < 0.0001) p = 0.0001;
+            double sq = p * p;
+            switch (k) {
+                case 1: cost[i] = p; break;
+                case 2: cost[i] = sq; break;
+                case 3: cost[i] = sq * p; break;
+                case 4: cost[i] = sq * sq; break;
+                default: cost[i] = Math.pow(p, alpha);
+            }
+        }
+        int cols = map.cols;
+        for (int r = 0; r < map.rows; r++) {
+            int base = map.index(r, 0), dense = r * cols;
+            for (int c = 0; c < cols; c++) {
+                int w = map.weight(base + c);
+                cost[dense + c] = (w == MazeMap.WALL) ? Double.POSITIVE_INFINITY : w / cost[dense + c];
+            }
+        }
+        chromo.virtualCosts = new VirtualCosts(map, alpha, cost);
+        return cost;
+    }
 
-                if (newGVirtual < bestVirtual[nr][nc]) {
-                    bestVirtual[nr][nc] = newGVirtual;
-                    double newH = useHeuristic ? manhattan(new Point(nr, nc), goal) : 0;
-                    pq.add(new Node(nr, nc, newGVirtual, newRealCost, newH, current));
+    private static final int REACHED = 0, EXHAUSTED = 1, CUT = 2, TRUNCATED = 3;
+
+    // A* (Dijkstra without heuristic) on the virtual entry costs, tracking the real cost alongside.
+    // REACHED: the goal's real cost is in ws.poppedReal. CUT: ws.poppedReal holds a lower bound
+    // above cutoff on the real cost the unbounded search would have returned.
+    //
+    // The queue always holds an entry on the path the search will end up returning, and no path
+    // through an entry can cost less than its real cost + h. 'live' counts queued entries whose
+    // bound is still within cutoff; when none are left the answer is known to exceed it. Until then
+    // the search runs exactly as the unbounded one.
+    // TRUNCATED: a reduced maxNodes ran out; ws.poppedReal holds the estimate described at fitness().
+    private int search(MazeMap map, DijksChromosome chromo, boolean useHeuristic, double cutoff, int maxNodes, DecodeWorkspace ws) {
+        int[] offsets = map.dirOffsets; int[] denseOffsets = map.denseOffsets;
+        double[] virtual = virtualCosts(map, chromo);
+        int startIdx = map.startIdx; int goalIdx = map.goalIdx;
+        // Landmark lower bound on real cost; virtual step costs are never below the real weight
+        // (priority <= 1), so it is also admissible for the virtual search.
+        LandmarkTable alt = useHeuristic ? LandmarkTable.forMap(map) : null;
+        double startH = useHeuristic ? alt.heuristic(startIdx) : 0;
+        ws.push(startIdx, startH, 0, 0);
+        ws.setBest(startIdx, 0, -1);
+        boolean bounded = cutoff < Double.POSITIVE_INFINITY;
+        int live = (startH <= cutoff) ? 1 : 0;
+        boolean probe = maxNodes < fullBudget(map);
+        LandmarkTable bound = probe ? LandmarkTable.forMap(map) : null;
+        int probeH = Integer.MAX_VALUE;
+        double probeReal = 0;
+        while (!ws.isEmpty()) {
+            if (bounded && live == 0) {
+                ws.poppedReal = queuedLowerBound(ws, alt);
+                return CUT;
+            }
+            int current = ws.pop();
+            double gVirtual = ws.poppedG, realCost = ws.poppedReal;
+            if (bounded && realCost + (useHeuristic ? alt.heuristic(current) : 0) <= cutoff) live--;
+            if (++ws.expanded > maxNodes) {
+                if (!probe) return EXHAUSTED;
+                ws.truncated = true;
+                ws.poppedReal = probeReal + probeH;
+                return TRUNCATED;
+            }
+            if (current == goalIdx) return REACHED;
+            if (gVirtual > ws.bestOf(current)) continue;
+            if (probe) {
+                int h = bound.heuristic(current);
+                if (h < probeH || (h == probeH && realCost < probeReal)) { probeH = h; probeReal = realCost; }
+            }
+            int curDense = map.denseOf(current);
+            for (int d = 0; d < 4; d++) {
+                int next = current + offsets[d];
+                int weight = map.weight(next);
+                if (weight == MazeMap.WALL) continue;
+                double newGVirtual = gVirtual + virtual[curDense + denseOffsets[d]];
+                if (newGVirtual < ws.bestOf(next)) {
+                    ws.setBest(next, newGVirtual, current);
+                    double newH = useHeuristic ? alt.heuristic(next) : 0;
+                    ws.push(next, newGVirtual + newH, newGVirtual, realCost + weight);
+                    if (realCost + weight + newH <= cutoff) live++;
                 }
             }
         }
-        return new ArrayList<>();
+        return EXHAUSTED;
     }
 
+    private static double queuedLowerBound(DecodeWorkspace ws, LandmarkTable alt) {
+        double bound = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < ws.queueSize(); i++) {
+            double b = ws.queuedReal(i) + (alt != null ? alt.heuristic(ws.queuedCell(i)) : 0);
+            if (b < bound) bound = b;
+        }
+        return bound;
+    }
 
-    private static List<Point> backtrack(Node endNode) {
+    private static List<Point> backtrack(MazeMap map, DecodeWorkspace ws) {
         List<Point> path = new ArrayList<>();
-        Node curr = endNode;
-        while (curr != null) { path.add(new Point(curr.r, curr.c)); curr = curr.parent; }
+        for (int idx = map.goalIdx; idx != -1; idx = ws.parentOf(idx)) path.add(map.toPoint(idx));
         Collections.reverse(path);
         return path;
     }
-
-    private static double manhattan(Point a, Point b) {
-        return Math.abs(a.r - b.r) + Math.abs(a.c - b.c);
-    }
-}
\ No newline at end of file
+}
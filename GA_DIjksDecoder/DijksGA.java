@@ -1,32 +1,81 @@
 package GA_DIjksDecoder;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
 
+import GA_Engine.GAEngine;
+import GA_Engine.IslandModel;
+import GA_Engine.PipelinedGA;
+import GA_Engine.StagedEvaluator;
+import GA_Engine.SteadyStateGA;
 import Struct.MazeMap;
 import Struct.Point;
 
 public class DijksGA {
-    private int popSize;         
-    private double mutationRate; 
+    private int popSize;
+    private double mutationRate;
     private double crossoverRate;
     private int elitismCount;
 
     private MazeMap map;
-    private Random rand = new Random();
+    public final DijksDecoder decoder;
+    public final StagedEvaluator staged = new StagedEvaluator();
+    public final GAEngine<DijksChromosome> engine;
+    private boolean useHeuristic; // Of the current evolve() call
+    private int mutationMode;
 
     public DijksGA(MazeMap map, int popSize, double mutationRate, double crossoverRate, int elitismCount) {
+        this(map, popSize, mutationRate, crossoverRate, elitismCount, DijksDecoder.DEFAULT);
+    }
+
+    public DijksGA(MazeMap map, int popSize, double mutationRate, double crossoverRate, int elitismCount, DijksDecoder decoder) {
         this.map = map;
+        this.decoder = decoder;
         this.popSize = popSize;
         this.mutationRate = mutationRate;
         this.crossoverRate = crossoverRate;
         this.elitismCount = elitismCount;
+        this.engine = newEngine(() -> this.useHeuristic, () -> this.mutationMode);
+    }
+
+    private GAEngine<DijksChromosome> newEngine(BooleanSupplier useHeuristic, IntSupplier mutationMode) {
+        int fullNodes = DijksDecoder.fullBudget(map);
+        // Offspring only matter if they can beat the worst elite (the cutoff); anything provably
+        // worse gets a lower bound above it instead of a full decode.
+        return new GAEngine<>(popSize, mutationRate, crossoverRate, elitismCount,
+                () -> new DijksChromosome(map.rows, map.cols),
+                (child, parent, rate) -> child.mutate(rate, mutationMode.getAsInt()),
+                (child, budget, cutoff) -> {
+                    int nodes = (int) Math.max(1, Math.min(fullNodes, budget * fullNodes));
+                    return decoder.fitness(map, child, useHeuristic.getAsBoolean(), cutoff, nodes);
+                });
+    }
+
+    // Island mode: 'count' independent populations of popSize each (see IslandModel).
+    public IslandModel<DijksChromosome> islands(int count, IslandModel.Topology topology, int interval, int migrants,
+                                                boolean useHeuristic, int mutationMode) {
+        List<GAEngine<DijksChromosome>> engines = new ArrayList<>();
+        for (int i = 0; i < count; i++) engines.add(newEngine(() -> useHeuristic, () -> mutationMode));
+        return new IslandModel<>(engines, topology, interval, migrants);
+    }
+
+    // Steady-state mode on 'threads' workers (see SteadyStateGA); the population is created here.
+    public SteadyStateGA<DijksChromosome> steadyState(int threads, SteadyStateGA.Replacement replacement,
+                                                      boolean useHeuristic, int mutationMode) {
+        return new SteadyStateGA<>(newEngine(() -> useHeuristic, () -> mutationMode), replacement, threads);
+    }
+
+    // Pipelined generations on 'threads' workers (see PipelinedGA); run it on initPopulation()'s result.
+    public PipelinedGA<DijksChromosome> pipelined(int threads, boolean useHeuristic, int mutationMode) {
+        return new PipelinedGA<>(newEngine(() -> useHeuristic, () -> mutationMode), threads);
     }
 
     public ArrayList<DijksChromosome> initPopulation(List<Point> seedPath) {
-        ArrayList<DijksChromosome> population = new ArrayList<>();
+        List<DijksChromosome> seeds = new ArrayList<>();
         int seedCount = (seedPath != null && !seedPath.isEmpty()) ? 2 : 0; 
+        Random rand = engine.random();
         for (int i = 0; i < seedCount; i++) {
             DijksChromosome seed = new DijksChromosome(map.rows, map.cols);
             for (int r = 0; r < map.rows; r++) {
@@ -35,77 +84,27 @@ public class DijksGA {
                 }
             }
             for (Point p : seedPath) seed.setGene(p.r, p.c, 0.8 + (rand.nextDouble() * 0.2)); 
-            seed.fitness = DijksDecoder.calculateFitness(map, seed, false);
-            population.add(seed);
+            seed.fitness = decoder.fitness(map, seed, false);
+            seeds.add(seed);
             System.out.println(">> Injected Seed Chromosome! Fitness: " + seed.fitness);
         }
-
-        for (int i = seedCount; i < popSize; i++) {
-            DijksChromosome c = new DijksChromosome(map.rows, map.cols);
-            c.randomInit(); 
-            c.fitness = DijksDecoder.calculateFitness(map, c, false);
-            population.add(c);
-        }
-        
-        return population;
+        useHeuristic = false;
+        return engine.initPopulation(seeds);
     }
 
     public ArrayList<DijksChromosome> evolve(ArrayList<DijksChromosome> population, boolean useHeuristic, int mutationMode) {
-        ArrayList<DijksChromosome> newPopulation = new ArrayList<>();
-        Collections.sort(population);
-        
-        for (int i = 0; i < elitismCount; i++) newPopulation.add(population.get(i).clone());
-        
-        while (newPopulation.size() < popSize) {
-            DijksChromosome parent1 = tournamentSelection(population);
-            DijksChromosome parent2 = tournamentSelection(population);
-
-            DijksChromosome child;
-            if (rand.nextDouble() < crossoverRate) child = uniformCrossover(parent1, parent2);
-            else child = parent1.clone();
-
-            child.mutate(mutationRate, mutationMode);
-
-            if (child.fitness != -1) child.fitness = -1; 
-            newPopulation.add(child);
-        }
-
-        newPopulation.parallelStream().forEach(child -> {
-            if (child.fitness == -1) {
-                child.fitness = DijksDecoder.calculateFitness(map, child, useHeuristic);
-            }
-        });
-
-        return newPopulation;
+        this.useHeuristic = useHeuristic;
+        this.mutationMode = mutationMode;
+        return engine.evolve(population);
     }
 
     public void setMutationRate(double newRate) {
         this.mutationRate = newRate;
+        engine.setMutationRate(newRate);
     }
 
-    private DijksChromosome tournamentSelection(ArrayList<DijksChromosome> pop) {
-        int tournamentSize = 5;
-        DijksChromosome best = null;
-        for (int i = 0; i < tournamentSize; i++) {
-            int randomIndex = rand.nextInt(pop.size());
-            DijksChromosome candidate = pop.get(randomIndex);
-            if (best == null || candidate.fitness < best.fitness) {
-                best = candidate;
-            }
-        }
-        return best;
-    }
-
-    private DijksChromosome uniformCrossover(DijksChromosome p1, DijksChromosome p2) {
-        DijksChromosome child = new DijksChromosome(map.rows, map.cols);
-        for (int i = 0; i < child.genes.length; i++) {
-            if (rand.nextBoolean()) {
-                child.genes[i] = p1.genes[i];
-            } else {
-                child.genes[i] = p2.genes[i];
-            }
-        }
-        child.fitness = -1;
-        return child;
+    // Staged (multi-fidelity) evaluation of offspring; off unless enabled here.
+    public void setStagedEvaluation(boolean enabled) {
+        engine.evaluation = enabled ? GAEngine.staged(staged) : GAEngine.parallel();
     }
-}
\ No newline at end of file
+}
@@ -3,19 +3,23 @@ package GA_DepthFirstSearch;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+import GA_Engine.Genome;
+import Struct.DeadEndKnowledge;
 import Struct.MazeMap;
 import Struct.Point;
 
-public class DFSChromosome implements Comparable<DFSChromosome> {
+public class DFSChromosome implements Genome<DFSChromosome> {
     public double[] genes; 
     public double fitness = -1;
     public int rows, cols;
 
     public boolean[] junctionBlocks;
     public List<Point> path = new ArrayList<>(); 
+    DFSPriorityDecoder.SuccessorOrder successors; // Cached by the decoder, dropped when genes change
     
-    private static final Random rand = new Random();
+    private static Random rand() { return ThreadLocalRandom.current(); }
     
     public DFSChromosome(int rows, int cols) {
         this.rows = rows;
@@ -26,9 +30,10 @@ public class DFSChromosome implements Comparable<DFSChromosome> {
 
     public void randomInit() {
         for (int i = 0; i < genes.length; i++) {
-            genes[i] = rand.nextDouble();
+            genes[i] = rand().nextDouble();
             junctionBlocks[i] = false; 
         }
+        successors = null;
     }
     
     public void randomInit(Point p) { randomInit(); } 
@@ -47,23 +52,26 @@ public class DFSChromosome implements Comparable<DFSChromosome> {
         return genes[r * cols + c];
     }
     
-    public void mutate(double mutationRate, int mode, List<Point> parentPath, MazeMap map) {
+    public void mutate(double mutationRate, int mode, List<Point> parentPath, MazeMap map, DeadEndKnowledge knowledge) {
         for (int i = 0; i < genes.length; i++) {
-            if (rand.nextDouble() < mutationRate) genes[i] = rand.nextDouble();
-            if (junctionBlocks[i] && rand.nextDouble() < 0.15) junctionBlocks[i] = false; 
+            if (rand().nextDouble() < mutationRate) {
+                genes[i] = rand().nextDouble();
+                successors = null;
+            }
+            if (junctionBlocks[i] && rand().nextDouble() < 0.15) junctionBlocks[i] = false; 
         }
 
         if (parentPath != null && parentPath.size() >= 5) {
-            if (rand.nextDouble() < 0.6) {
-                int targetBlocks = 1 + rand.nextInt(3); 
+            if (rand().nextDouble() < 0.6) {
+                int targetBlocks = 1 + rand().nextInt(3); 
                 int blocksDone = 0;
                 int maxTries = 50; 
                 while (blocksDone < targetBlocks && maxTries-- > 0) {
-                    int idx = rand.nextInt(parentPath.size() - 1);
+                    int idx = rand().nextInt(parentPath.size() - 1);
                     Point curr = parentPath.get(idx);
                     if ((curr.r == map.start.r && curr.c == map.start.c) || 
                         (curr.r == map.goal.r && curr.c == map.goal.c)) continue;
-                    if (isJunction(map, curr.r, curr.c)) {
+                    if (isJunction(map, knowledge, curr.r, curr.c)) {
                         Point nextStep = parentPath.get(idx + 1);
                         if ((nextStep.r == map.goal.r && nextStep.c == map.goal.c) ||
                             isMyBlock(nextStep.r, nextStep.c)) {
@@ -79,12 +87,12 @@ public class DFSChromosome implements Comparable<DFSChromosome> {
         this.fitness = -1; 
     }
     
-    private boolean isJunction(MazeMap map, int r, int c) {
+    private boolean isJunction(MazeMap map, DeadEndKnowledge knowledge, int r, int c) {
         int ways = 0;
         int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
         for (int[] d : dirs) {
             int nr = r + d[0], nc = c + d[1];
-            if (map.isValid(nr, nc) && !DFSGlobalKnowledge.isDeadEnd(nr, nc)) {
+            if (map.isValid(nr, nc) && !knowledge.isDeadEnd(nr, nc)) {
                 ways++;
             }
         }
@@ -96,7 +104,7 @@ public class DFSChromosome implements Comparable<DFSChromosome> {
             boolean w1 = p1.junctionBlocks[i];
             boolean w2 = p2.junctionBlocks[i];
             if (w1 && w2) this.junctionBlocks[i] = true;
-            else if (w1 || w2) this.junctionBlocks[i] = rand.nextBoolean();
+            else if (w1 || w2) this.junctionBlocks[i] = rand().nextBoolean();
             else this.junctionBlocks[i] = false;
         }
     }
@@ -105,11 +113,18 @@ public class DFSChromosome implements Comparable<DFSChromosome> {
         DFSChromosome c = new DFSChromosome(rows, cols);
         System.arraycopy(this.genes, 0, c.genes, 0, genes.length);
         System.arraycopy(this.junctionBlocks, 0, c.junctionBlocks, 0, junctionBlocks.length);
+        c.successors = this.successors; // Same genes, and the cache is never modified in place
         c.fitness = this.fitness;
         if (this.path != null) c.path = new ArrayList<>(this.path); 
         return c;
     }
 
+    public double fitness() { return fitness; }
+
+    public void setFitness(double fitness) { this.fitness = fitness; }
+
+    public double[] genes() { return genes; }
+
     @Override
     public int compareTo(DFSChromosome other) {
         return Double.compare(this.fitness, other.fitness);
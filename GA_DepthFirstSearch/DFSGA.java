@@ -1,21 +1,29 @@
 package GA_DepthFirstSearch;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-
+import java.util.function.IntSupplier;
+
+import GA_Engine.GAEngine;
+import GA_Engine.IslandModel;
+import GA_Engine.PipelinedGA;
+import GA_Engine.StagedEvaluator;
+import GA_Engine.SteadyStateGA;
+import Struct.DeadEndKnowledge;
 import Struct.MazeMap;
 import Struct.Point;
 
 public class DFSGA {
-    private int popSize;        
-    private double mutationRate; 
+    private int popSize;
+    private double mutationRate;
     private double crossoverRate;
     private int elitismCount;
 
     private MazeMap map;
-    private Random rand = new Random();
+    public final DeadEndKnowledge knowledge; // Dead ends learned by this run's decoders
+    public final StagedEvaluator staged = new StagedEvaluator();
+    public final GAEngine<DFSChromosome> engine;
+    private int mutationMode; // Of the current evolve() call
 
     public DFSGA(MazeMap map, int popSize, double mutationRate, double crossoverRate, int elitismCount) {
         this.map = map;
@@ -23,110 +31,63 @@ public class DFSGA {
         this.mutationRate = mutationRate;
         this.crossoverRate = crossoverRate;
         this.elitismCount = elitismCount;
-        DFSGlobalKnowledge.init(map.rows, map.cols);
+        this.knowledge = new DeadEndKnowledge(map.rows, map.cols);
+        this.engine = newEngine(() -> this.mutationMode);
     }
 
-    public ArrayList<DFSChromosome> initPopulation() {
-        ArrayList<DFSChromosome> population = new ArrayList<>();
-        for (int i = 0; i < popSize; i++) {
-            DFSChromosome c = new DFSChromosome(map.rows, map.cols);
-            c.randomInit(); 
-            c.path = new ArrayList<>(); 
-            c.fitness = DFSPriorityDecoder.calculateFitness(map, c, c.path);
-            population.add(c);
-        }
-        return population;
+    private GAEngine<DFSChromosome> newEngine(IntSupplier mutationMode) {
+        int fullSteps = DFSPriorityDecoder.fullBudget(map);
+        GAEngine<DFSChromosome> engine = new GAEngine<>(popSize, mutationRate, crossoverRate, elitismCount,
+                () -> new DFSChromosome(map.rows, map.cols),
+                (child, parent, rate) -> child.mutate(rate, mutationMode.getAsInt(), parent.path, map, knowledge),
+                (child, budget, cutoff) -> {
+                    List<Point> tempPath = new ArrayList<>();
+                    int steps = (int) Math.max(1, Math.min(fullSteps, budget * fullSteps));
+                    double fitness = DFSPriorityDecoder.calculateFitness(map, knowledge, child, tempPath, steps);
+                    child.path = tempPath;
+                    return fitness;
+                });
+        GAEngine.Crossover<DFSChromosome> uniform = engine.crossover;
+        engine.crossover = (p1, p2, rand) -> {
+            DFSChromosome child = uniform.cross(p1, p2, rand);
+            child.inheritWalls(p1, p2);
+            return child;
+        };
+        engine.immigrantShare = 0.15;
+        return engine;
     }
 
-    public ArrayList<DFSChromosome> evolve(ArrayList<DFSChromosome> population, boolean useHeuristic, int mutationMode) {
-        ArrayList<DFSChromosome> newPopulation = new ArrayList<>();
-        Collections.sort(population);
-        
-        for (int i = 0; i < elitismCount; i++) {
-            DFSChromosome original = population.get(i);
-            DFSChromosome clone = original.clone();
-        
-            if (clone.path == null || clone.path.isEmpty()) {
-                if (original.path != null) {
-                    clone.path = new ArrayList<>(original.path);
-                }
-            }
-
-            newPopulation.add(clone);
-        }
-
-        int freshBloodCount = (int)(popSize * 0.15); 
-        int breedCount = popSize - elitismCount - freshBloodCount;
-
-        while (newPopulation.size() < elitismCount + breedCount) {
-            DFSChromosome parent1 = tournamentSelection(population);
-            DFSChromosome parent2 = tournamentSelection(population);
-
-            DFSChromosome child;
-            if (rand.nextDouble() < crossoverRate) {
-                child = uniformCrossover(parent1, parent2);
-            } else {
-                child = parent1.clone();
-            }
+    // Island mode (see IslandModel); all islands learn into the same DeadEndKnowledge.
+    public IslandModel<DFSChromosome> islands(int count, IslandModel.Topology topology, int interval, int migrants, int mutationMode) {
+        List<GAEngine<DFSChromosome>> engines = new ArrayList<>();
+        for (int i = 0; i < count; i++) engines.add(newEngine(() -> mutationMode));
+        return new IslandModel<>(engines, topology, interval, migrants);
+    }
 
-            child.mutate(mutationRate, mutationMode, parent1.path,map);
+    public SteadyStateGA<DFSChromosome> steadyState(int threads, SteadyStateGA.Replacement replacement, int mutationMode) {
+        return new SteadyStateGA<>(newEngine(() -> mutationMode), replacement, threads);
+    }
 
-            if (child.fitness != -1) child.fitness = -1; 
-            newPopulation.add(child);
-        }
+    public PipelinedGA<DFSChromosome> pipelined(int threads, int mutationMode) {
+        return new PipelinedGA<>(newEngine(() -> mutationMode), threads);
+    }
 
-        for (int i = 0; i < freshBloodCount; i++) {
-            DFSChromosome immigrant = new DFSChromosome(map.rows, map.cols);
-            immigrant.randomInit();
-            immigrant.fitness = -1;
-            newPopulation.add(immigrant);
-        }
+    public ArrayList<DFSChromosome> initPopulation() {
+        return engine.initPopulation(null);
+    }
 
-        newPopulation.parallelStream().forEach(child -> {
-            if (child.fitness == -1) {
-                List<Point> tempPath = new ArrayList<>();
-                //child.fitness = DFSDecoder.calculateFitness(map, child, tempPath);
-                child.fitness = DFSPriorityDecoder.calculateFitness(map, child, tempPath);
-                child.path = tempPath;
-            }
-        });
-        
-        return newPopulation;
+    public ArrayList<DFSChromosome> evolve(ArrayList<DFSChromosome> population, boolean useHeuristic, int mutationMode) {
+        this.mutationMode = mutationMode;
+        return engine.evolve(population);
     }
 
     public void setMutationRate(double newRate) {
         this.mutationRate = newRate;
+        engine.setMutationRate(newRate);
     }
 
-    private DFSChromosome tournamentSelection(ArrayList<DFSChromosome> pop) {
-        int tournamentSize = 5;
-        DFSChromosome best = null;
-
-        for (int i = 0; i < tournamentSize; i++) {
-            int randomIndex = rand.nextInt(pop.size());
-            DFSChromosome candidate = pop.get(randomIndex);
-
-            if (best == null || candidate.fitness < best.fitness) {
-                best = candidate;
-            }
-        }
-        return best;
-    }
-
-    private DFSChromosome uniformCrossover(DFSChromosome p1, DFSChromosome p2) {
-        DFSChromosome child = new DFSChromosome(map.rows, map.cols);
-        
-        for (int i = 0; i < child.genes.length; i++) {
-            if (rand.nextBoolean()) {
-                child.genes[i] = p1.genes[i];
-            } else {
-                child.genes[i] = p2.genes[i];
-            }
-        }
-
-        child.inheritWalls(p1, p2);
-    
-        child.fitness = -1;
-        return child;
+    // Staged (multi-fidelity) evaluation of offspring; off unless enabled here.
+    public void setStagedEvaluation(boolean enabled) {
+        engine.evaluation = enabled ? GAEngine.staged(staged) : GAEngine.parallel();
     }
-}
\ No newline at end of file
+}
@@ -3,81 +3,90 @@ package GA_DepthFirstSearch;
 import java.util.ArrayList;
 import java.util.List;
 
+import MazeSolverAlgo.DeadEndMap;
+import Struct.DecodeWorkspace;
+import Struct.DeadEndKnowledge;
 import Struct.MazeMap;
 import Struct.Point;
 
 public class DFSPriorityDecoder {
-    public static double calculateFitness(MazeMap map, DFSChromosome chromo, List<Point> path) {
+    public static double calculateFitness(MazeMap map, DeadEndKnowledge knowledge, DFSChromosome chromo, List<Point> path) {
+        return calculateFitness(map, knowledge, chromo, path, fullBudget(map));
+    }
+
+    // Full-fidelity step budget; smaller budgets give a cheaper, cruder score (see StagedEvaluator).
+    public static int fullBudget(MazeMap map) { return map.rows * map.cols * 10; }
+
+    public static double calculateFitness(MazeMap map, DeadEndKnowledge knowledge, DFSChromosome chromo, List<Point> path, int maxSteps) {
         path.clear();
-        Point start = map.start;
-        Point goal = map.goal;
-        int curR = start.r;
-        int curC = start.c;
-        path.add(new Point(curR, curC));
-        boolean[][] isVisited = new boolean[map.rows][map.cols];
-        isVisited[curR][curC] = true;
-        int maxSteps = map.rows * map.cols * 10; 
-        for (int step = 0; step < maxSteps; step++) {
-            if (curR == goal.r && curC == goal.c) {
+        int[] offsets = map.dirOffsets;
+        int[] denseOffsets = map.denseOffsets;
+        int startIdx = map.startIdx;
+        int goalIdx = map.goalIdx;
+        DeadEndMap filled = DeadEndMap.forMap(map); // Static dead ends, shared by every decode of this map
+        byte[] order = successorOrder(map, chromo);
+        int cur = startIdx;
+        int curDense = map.denseOf(startIdx);
+        // Path is kept as a stack of cell indices (thread-local, reused) and only turned into Points on exit.
+        DecodeWorkspace ws = DecodeWorkspace.acquire(map.size());
+        int[] stack = ws.stack;
+        int top = 0;
+        stack[top++] = cur;
+        ws.visit(cur);
+        int step = 0;
+        for (; step < maxSteps; step++) {
+            if (cur == goalIdx) {
                 double totalCost = 0;
-                for (Point p : path) totalCost += map.getWeight(p.r, p.c);
+                for (int i = 0; i < top; i++) totalCost += map.weight(stack[i]);
+                toPoints(map, stack, top, path);
                 return totalCost;
             }
-            List<Point> validMoves = new ArrayList<>();
-            List<Double> priorities = new ArrayList<>();
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}}; 
-            for (int[] d : dirs) {
-                int nr = curR + d[0];
-                int nc = curC + d[1];
-                if (map.isValid(nr, nc) && !isVisited[nr][nc] 
-                    && !DFSGlobalKnowledge.isDeadEnd(nr, nc) 
-                    && !chromo.isMyBlock(nr, nc)) {
-                    double p = chromo.getPriority(nr, nc); 
-                    validMoves.add(new Point(nr, nc));
-                    priorities.add(p);
-                }
-            }
-            if (!validMoves.isEmpty()) {
-                double maxPriority = -Double.MAX_VALUE;
-                int selectedIdx = -1;
-                for (int i = 0; i < validMoves.size(); i++) {
-                    if (priorities.get(i) > maxPriority) {
-                        maxPriority = priorities.get(i);
-                        selectedIdx = i;
+            int selectedDir = -1;
+            if (order != null) { // First usable direction in gene order
+                for (int k = 0, dirs = successors(map, chromo.genes, order, cur, curDense, ws.moves, ws.weights); k < 4; k++, dirs >>>= 2) {
+                    int d = dirs & 3;
+                    if (usable(map, filled, knowledge, chromo, ws, cur + offsets[d], curDense + denseOffsets[d])) {
+                        selectedDir = d;
+                        break;
                     }
                 }
-                Point nextMove = validMoves.get(selectedIdx);
-                curR = nextMove.r;
-                curC = nextMove.c;
-                isVisited[curR][curC] = true;
-                path.add(new Point(curR, curC));   
             } else {
-            if (path.size() > 1) {
-                int badR = curR;
-                int badC = curC;
-                path.remove(path.size() - 1); 
-                Point prev = path.get(path.size() - 1);
-                curR = prev.r;
-                curC = prev.c;
-                int openExits = 0;
-                for (int[] d : dirs) {
-                    int nr = badR + d[0];
-                    int nc = badC + d[1];
-                    if (map.isValid(nr, nc) && !DFSGlobalKnowledge.isDeadEnd(nr, nc)) { 
-                        openExits++;
+                double maxPriority = -Double.MAX_VALUE;
+                for (int d = 0; d < 4; d++) {
+                    int nextDense = curDense + denseOffsets[d];
+                    if (usable(map, filled, knowledge, chromo, ws, cur + offsets[d], nextDense)) {
+                        double p = chromo.genes[nextDense];
+                        if (p > maxPriority) {
+                            maxPriority = p;
+                            selectedDir = d;
+                        }
                     }
                 }
-                boolean isStart = (badR == map.start.r && badC == map.start.c);
-                if (openExits <= 1 && !isStart) {
-                    DFSGlobalKnowledge.markDeadEnd(badR, badC);
+            }
+            if (selectedDir != -1) {
+                cur += offsets[selectedDir];
+                curDense += denseOffsets[selectedDir];
+                ws.visit(cur);
+                stack[top++] = cur;   
+            } else {
+            if (top > 1) {
+                int bad = cur;
+                int badDense = curDense;
+                top--;
+                cur = stack[top - 1];
+                curDense = map.denseOf(cur);
+                if (bad != startIdx && openExits(map, filled, knowledge, bad, badDense) <= 1) {
+                    markDeadEndCascade(map, filled, knowledge, bad, badDense);
                 }
             } else {
                 break;
             }
         }
         }
-        double distR = Math.abs(curR - goal.r);
-        double distC = Math.abs(curC - goal.c);
+        ws.truncated = step >= maxSteps;
+        toPoints(map, stack, top, path);
+        double distR = Math.abs(map.rowOf(cur) - map.goal.r);
+        double distC = Math.abs(map.colOf(cur) - map.goal.c);
         double manhattanDist = distR + distC;
         double basePenalty = map.rows * map.cols * 10;
         double distancePenalty = Math.pow(manhattanDist, 2) * 2.5; 
@@ -87,11 +96,117 @@ public class DFSPriorityDecoder {
         return basePenalty + distancePenalty;
     }
 
+    private static boolean usable(MazeMap map, DeadEndMap filled, DeadEndKnowledge knowledge, DFSChromosome chromo, DecodeWorkspace ws, int next, int nextDense) {
+        return map.isOpen(next) && !filled.isDeadEnd(next) && !ws.visited(next)
+            && !knowledge.isDeadEnd(nextDense)
+            && !chromo.junctionBlocks[nextDense];
+    }
+
+    // --- Successor order ---
+
+    // Neighbour directions of each open cell (dense layout), packed 2 bits each, highest gene
+    // first; ties keep direction order and closed neighbours come last. Taking the first usable
+    // entry is then the same choice as scanning for the strictly greatest gene.
+    // Only genes that get decoded again (elites, unmutated clones, staged re-runs) are worth a
+    // table, so the first decode of a chromosome scans genes directly and just records that it ran.
+    // From the second one on, a cell is compiled the first time a decode stands on it (0 is not a
+    // valid packing, so it marks "not yet"). Concurrent decodes of one chromosome may compile the
+    // same cell twice, always to the same value.
+    // Never changed once set; the chromosome drops it whenever its genes change.
+    static final class SuccessorOrder {
+        final MazeMap map;
+        final byte[] order;
+
+        SuccessorOrder(MazeMap map, byte[] order) {
+            this.map = map;
+            this.order = order;
+        }
+    }
+
+    // Null on a chromosome's first decode on this map: scan genes directly.
+    static byte[] successorOrder(MazeMap map, DFSChromosome chromo) {
+        SuccessorOrder so = chromo.successors;
+        if (so == null || so.map != map) {
+            chromo.successors = new SuccessorOrder(map, null);
+            return null;
+        }
+        if (so.order != null) return so.order;
+        byte[] order = new byte[map.rows * map.cols];
+        chromo.successors = new SuccessorOrder(map, order);
+        return order;
+    }
+
+    private static int successors(MazeMap map, double[] genes, byte[] order, int idx, int dense, int[] dirs, double[] keys) {
+        int packed = order[dense] & 0xFF;
+        if (packed != 0) return packed;
+        int[] offsets = map.dirOffsets;
+        int[] denseOffsets = map.denseOffsets;
+        int open = 0, closed = 0, closedCount = 0;
+        for (int d = 0; d < 4; d++) {
+            if (!map.isOpen(idx + offsets[d])) {
+                closed |= d << (2 * closedCount++);
+                continue;
+            }
+            double g = genes[dense + denseOffsets[d]];
+            int k = open++;
+            for (; k > 0 && g > keys[k - 1]; k--) { // Stable insertion, descending by gene
+                keys[k] = keys[k - 1];
+                dirs[k] = dirs[k - 1];
+            }
+            keys[k] = g;
+            dirs[k] = d;
+        }
+        for (int k = 0; k < open; k++) packed |= dirs[k] << (2 * k);
+        packed |= closed << (2 * open);
+        order[dense] = (byte) packed;
+        return packed;
+    }
+
+    // --- Dead ends ---
+
+    // Open neighbours of idx that are neither filled statically nor known dead ends.
+    private static int openExits(MazeMap map, DeadEndMap filled, DeadEndKnowledge knowledge, int idx, int dense) {
+        int exits = 0;
+        for (int d = 0; d < 4; d++) {
+            int n = idx + map.dirOffsets[d];
+            if (map.isOpen(n) && !filled.isDeadEnd(n) && !knowledge.isDeadEnd(dense + map.denseOffsets[d])) exits++;
+        }
+        return exits;
+    }
+
+    // Marks idx and then walks back up its corridor, marking every cell left with at most one exit,
+    // so other chromosomes do not have to rediscover the corridor one backtrack at a time.
+    // Marks only ever get added and each cell is re-checked against the shared bits just before it
+    // is marked, so decoders running in parallel can cascade through the same corridor safely;
+    // whoever sets a bit first continues the walk, the others stop there.
+    private static void markDeadEndCascade(MazeMap map, DeadEndMap filled, DeadEndKnowledge knowledge, int idx, int dense) {
+        int[] offsets = map.dirOffsets;
+        int[] denseOffsets = map.denseOffsets;
+        while (knowledge.markDeadEnd(dense)) {
+            int next = -1, nextDense = -1;
+            for (int d = 0; d < 4; d++) {
+                int n = idx + offsets[d], nd = dense + denseOffsets[d];
+                if (!map.isOpen(n) || filled.isDeadEnd(n) || knowledge.isDeadEnd(nd)) continue;
+                next = n;
+                nextDense = nd;
+                break; // At most one exit is left, or idx would not have been marked
+            }
+            if (next < 0 || next == map.startIdx || next == map.goalIdx) return;
+            if (openExits(map, filled, knowledge, next, nextDense) > 1) return;
+            idx = next;
+            dense = nextDense;
+        }
+    }
+
+    private static void toPoints(MazeMap map, int[] stack, int top, List<Point> path) {
+        for (int i = 0; i < top; i++) path.add(map.toPoint(stack[i]));
+    }
+
 
-    public static List<Point> getPath(MazeMap map, DFSChromosome c, boolean b) {
+    public static List<Point> getPath(MazeMap map, DeadEndKnowledge knowledge, DFSChromosome c, boolean b) {
         List<Point> p = new ArrayList<>();
-        calculateFitness(map, c, p);
+        calculateFitness(map, knowledge, c, p);
         return p;
     }
 
-}
\ No newline at end of file
+}
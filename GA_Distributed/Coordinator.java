@@ -0,0 +1,209 @@
+package GA_Distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hub of a distributed island run. Workers connect, say HELLO with their maze fingerprint and
+// strategy, then stream ELITE and HEARTBEAT frames. Every worker must match the first one on both. The coordinator keeps the best genome seen so far
+// (as raw codec bytes, so it needs no maze or GA of its own), forwards every elite to the next
+// live worker in join order (a ring over whoever is still connected) and hands the best so far
+// to each newcomer. A worker that disconnects or stays silent for TIMEOUT_MS is dropped; its
+// best genome survives here and the ring closes over the gap.
+public class Coordinator {
+    public static final int TIMEOUT_MS = 10_000;
+
+    private final ServerSocket server;
+    private final List<Link> workers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger joined = new AtomicInteger();
+    private final AtomicInteger lost = new AtomicInteger();
+    private Long fingerprint; // Maze every worker must have; the first worker's unless expect()ed
+    private String strategy;  // Decoder every worker must run, chosen the same way
+    private double bestFitness = Double.POSITIVE_INFINITY;
+    private byte[] bestElite; // Whole ELITE payload of the best genome
+    private int bestWorker = -1;
+    private volatile boolean stopped;
+
+    // One connected worker. Frames to it are written under its own lock.
+    private final class Link {
+        final int id;
+        final Socket socket;
+        final DataOutputStream out;
+        volatile long generations;
+
+        Link(int id, Socket socket) throws IOException {
+            this.id = id;
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        synchronized void send(byte type, byte[] payload) throws IOException {
+            Wire.write(out, type, payload);
+        }
+    }
+
+    public Coordinator(int port) throws IOException {
+        this.server = new ServerSocket(port);
+    }
+
+    public int port() { return server.getLocalPort(); }
+
+    // Only admits workers whose maze has this Wire.fingerprint.
+    public synchronized void expect(long mazeFingerprint) { fingerprint = mazeFingerprint; }
+
+    // Only admits workers running this strategy (dijk, sct or dfs). Genomes of different decoders
+    // neither share a codec nor have comparable fitness.
+    public synchronized void expectStrategy(String name) { strategy = name; }
+
+    public int liveWorkers() { return workers.size(); }
+
+    public int lostWorkers() { return lost.get(); }
+
+    public long generations() {
+        long total = 0;
+        for (Link w : workers) total += w.generations;
+        return total;
+    }
+
+    public synchronized double bestFitness() { return bestFitness; }
+
+    public synchronized int bestWorker() { return bestWorker; }
+
+    // ELITE payload of the best genome so far (null before the first), for GenomeCodec.read
+    // after skipping the leading fitness.
+    public synchronized byte[] bestElite() { return bestElite; }
+
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "coordinator-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    // Tells every worker to stop and closes all connections.
+    public void stop() {
+        stopped = true;
+        for (Link w : workers) {
+            try {
+                w.send(Wire.STOP, new byte[0]);
+            } catch (IOException e) {
+                // Already gone
+            }
+            close(w);
+        }
+        try {
+            server.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    private void acceptLoop() {
+        while (!stopped) {
+            try {
+                Socket s = server.accept();
+                s.setTcpNoDelay(true);
+                s.setSoTimeout(TIMEOUT_MS);
+                Link link = new Link(joined.incrementAndGet(), s);
+                Thread reader = new Thread(() -> serve(link), "coordinator-worker-" + link.id);
+                reader.setDaemon(true);
+                reader.start();
+            } catch (SocketException e) {
+                return; // Server socket closed by stop()
+            } catch (IOException e) {
+                System.err.println("Coordinator: accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Link link) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(link.socket.getInputStream()))) {
+            Wire.Frame hello = Wire.read(in);
+            if (hello.type != Wire.HELLO || !accept(link, hello.payload)) {
+                link.send(Wire.STOP, new byte[0]);
+                close(link);
+                return;
+            }
+            workers.add(link);
+            byte[] best = bestElite();
+            if (best != null) link.send(Wire.ELITE, best);
+            while (!stopped) {
+                Wire.Frame f = Wire.read(in);
+                if (f.type == Wire.ELITE) onElite(link, f.payload);
+                else if (f.type == Wire.HEARTBEAT) link.generations = new DataInputStream(new ByteArrayInputStream(f.payload)).readLong();
+            }
+        } catch (IOException e) {
+            if (!stopped && workers.contains(link)) {
+                lost.incrementAndGet();
+                System.err.println("Coordinator: worker " + link.id + " lost (" + e + ")");
+            }
+        } finally {
+            workers.remove(link);
+            close(link);
+        }
+    }
+
+    private synchronized boolean accept(Link link, byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long fp = in.readLong();
+        int rows = in.readInt(), cols = in.readInt();
+        String strategy = in.readUTF();
+        if (fingerprint != null && fingerprint != fp) {
+            System.err.println("Coordinator: worker " + link.id + " refused, different maze (" + rows + "x" + cols + ")");
+            return false;
+        }
+        if (this.strategy != null && !this.strategy.equals(strategy)) {
+            System.err.println("Coordinator: worker " + link.id + " refused, runs " + strategy + " instead of " + this.strategy);
+            return false;
+        }
+        fingerprint = fp;
+        this.strategy = strategy;
+        System.out.println("Coordinator: worker " + link.id + " joined (" + strategy + ", " + rows + "x" + cols + ")");
+        return true;
+    }
+
+    private void onElite(Link from, byte[] payload) throws IOException {
+        double fitness = new DataInputStream(new ByteArrayInputStream(payload)).readDouble();
+        synchronized (this) {
+            if (fitness < bestFitness) {
+                bestFitness = fitness;
+                bestElite = payload;
+                bestWorker = from.id;
+            }
+        }
+        Link next = nextAfter(from);
+        if (next == null) return;
+        try {
+            next.send(Wire.ELITE, payload);
+        } catch (IOException e) {
+            close(next); // Its reader thread notices and counts the loss
+        }
+    }
+
+    private Link nextAfter(Link from) {
+        Link first = null;
+        boolean seen = false;
+        for (Link w : workers) {
+            if (seen) return w;
+            if (w == from) seen = true;
+            else if (first == null) first = w;
+        }
+        return first;
+    }
+
+    private static void close(Link link) {
+        try {
+            link.socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package GA_Distributed;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import GA_DIjksDecoder.DijksChromosome;
+import GA_DIjksDecoder.DijksDecoder;
+import GA_DIjksDecoder.DijksGA;
+import GA_DepthFirstSearch.DFSGA;
+import GA_Engine.Genome;
+import GA_Engine.IslandModel;
+import GA_StocasticDecoder.StocasticChromosome;
+import GA_StocasticDecoder.StocasticGA;
+import Struct.MazeMap;
+import Struct.Reader;
+
+// Command line for a distributed island run; start one coordinator and any number of workers,
+// on one machine or several:
+//   java -cp bin GA_Distributed.DistributedGA coordinator <port> <seconds> [maze file [dijk|sct|dfs]]
+//   java -cp bin GA_Distributed.DistributedGA worker <host> <port> <maze file> <dijk|sct|dfs> [islands] [popSize]
+// and a self-contained localhost check of the protocol (exit status 0 when it passes):
+//   java -cp bin GA_Distributed.DistributedGA smoke [maze file] [seconds]
+public class DistributedGA {
+    private static final double MUTATION_RATE = 0.01, CROSSOVER_RATE = 0.9;
+    private static final int ELITISM = 10, MIGRATION_INTERVAL = 10, MIGRANTS = 2;
+    private static final long REPORT_MS = 1000;
+    private static final String SMOKE_MAZE = "MAZE/m100_100.txt";
+    private static final int SMOKE_SECONDS = 10, SMOKE_POP = 40;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3 && args[0].equals("coordinator")) {
+            coordinator(Integer.parseInt(args[1]), Integer.parseInt(args[2]), args.length > 3 ? args[3] : null,
+                    args.length > 4 ? args[4] : null);
+        } else if (args.length >= 5 && args[0].equals("worker")) {
+            int islands = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+            int popSize = args.length > 6 ? Integer.parseInt(args[6]) : 100;
+            worker(args[1], Integer.parseInt(args[2]), args[3], args[4], islands, popSize);
+        } else if (args.length >= 1 && args[0].equals("smoke")) {
+            boolean ok = smoke(args.length > 1 ? args[1] : SMOKE_MAZE, args.length > 2 ? Integer.parseInt(args[2]) : SMOKE_SECONDS);
+            System.exit(ok ? 0 : 1);
+        } else {
+            System.err.println("Usage: DistributedGA coordinator <port> <seconds> [maze file [dijk|sct|dfs]]");
+            System.err.println("       DistributedGA worker <host> <port> <maze file> <dijk|sct|dfs> [islands] [popSize]");
+            System.err.println("       DistributedGA smoke [maze file] [seconds]");
+            System.exit(2);
+        }
+    }
+
+    // Without a maze file (or strategy) the first worker to join decides which maze the run is on
+    // (and which decoder it uses).
+    static void coordinator(int port, int seconds, String mazeFile, String strategy) throws InterruptedException {
+        Coordinator c;
+        try {
+            c = new Coordinator(port);
+        } catch (IOException e) {
+            System.err.println("Coordinator: cannot listen on " + port + ": " + e.getMessage());
+            return;
+        }
+        if (mazeFile != null) {
+            MazeMap map = new Reader().readMap(mazeFile);
+            if (map == null) {
+                System.err.println("Coordinator: cannot read maze " + mazeFile);
+                c.stop();
+                return;
+            }
+            c.expect(Wire.fingerprint(map));
+        }
+        if (strategy != null) c.expectStrategy(strategy);
+        c.start();
+        System.out.println("Coordinator listening on " + c.port());
+        long end = System.currentTimeMillis() + seconds * 1000L;
+        while (System.currentTimeMillis() < end) {
+            Thread.sleep(REPORT_MS);
+            System.out.printf("best=%.1f (worker %d) workers=%d lost=%d generations=%d%n",
+                    c.bestFitness(), c.bestWorker(), c.liveWorkers(), c.lostWorkers(), c.generations());
+        }
+        c.stop();
+        System.out.printf("Final best=%.1f from worker %d%n", c.bestFitness(), c.bestWorker());
+    }
+
+    static void worker(String host, int port, String mazeFile, String strategy, int islands, int popSize)
+            throws IOException, InterruptedException {
+        MazeMap map = new Reader().readMap(mazeFile);
+        if (map == null) {
+            System.err.println("Worker: cannot read maze " + mazeFile);
+            return;
+        }
+        IslandModel.Topology ring = IslandModel.Topology.RING;
+        double best;
+        switch (strategy) {
+            case "dijk": {
+                DijksGA ga = new DijksGA(map, popSize, MUTATION_RATE, CROSSOVER_RATE, ELITISM);
+                best = run(new Worker<>(map, strategy, ga.islands(islands, ring, MIGRATION_INTERVAL, MIGRANTS, true, 0),
+                        GenomeCodec.dijks(map)), host, port);
+                break;
+            }
+            case "sct": {
+                StocasticGA ga = new StocasticGA(map, popSize, MUTATION_RATE, CROSSOVER_RATE, ELITISM);
+                best = run(new Worker<>(map, strategy, ga.islands(islands, ring, MIGRATION_INTERVAL, MIGRANTS, StocasticChromosome.MUTATION_HYBRID),
+                        GenomeCodec.stocastic(map)), host, port);
+                break;
+            }
+            case "dfs": {
+                DFSGA ga = new DFSGA(map, popSize, MUTATION_RATE, CROSSOVER_RATE, ELITISM);
+                best = run(new Worker<>(map, strategy, ga.islands(islands, ring, MIGRATION_INTERVAL, MIGRANTS, 0),
+                        GenomeCodec.dfs(map)), host, port);
+                break;
+            }
+            default:
+                System.err.println("Worker: unknown strategy " + strategy);
+                return;
+        }
+        System.out.printf("Worker done, local best=%.1f%n", best);
+    }
+
+    // A coordinator and two dijk workers on localhost; the second worker drops out halfway. Passes
+    // when both joined, the coordinator counted exactly one loss and kept the other worker, and
+    // its best ELITE decodes here to the fitness it was reported with.
+    static boolean smoke(String mazeFile, int seconds) throws IOException, InterruptedException {
+        MazeMap map = new Reader().readMap(mazeFile);
+        if (map == null) {
+            System.err.println("Smoke: cannot read maze " + mazeFile);
+            return false;
+        }
+        Coordinator c = new Coordinator(0);
+        c.expect(Wire.fingerprint(map));
+        c.expectStrategy("dijk");
+        c.start();
+        List<Worker<DijksChromosome>> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            DijksGA ga = new DijksGA(map, SMOKE_POP, MUTATION_RATE, CROSSOVER_RATE, ELITISM);
+            Worker<DijksChromosome> w = new Worker<>(map, "dijk",
+                    ga.islands(1, IslandModel.Topology.RING, MIGRATION_INTERVAL, MIGRANTS, true, 0), GenomeCodec.dijks(map));
+            Thread t = new Thread(() -> {
+                try {
+                    w.run("localhost", c.port(), REPORT_MS / 4);
+                } catch (IOException | InterruptedException e) {
+                    System.err.println("Smoke: worker failed: " + e);
+                }
+            }, "smoke-worker-" + i);
+            t.setDaemon(true);
+            t.start();
+            workers.add(w);
+            threads.add(t);
+        }
+        Thread.sleep(seconds * 500L);
+        int joined = c.liveWorkers();
+        workers.get(1).stop();
+        threads.get(1).join();
+        Thread.sleep(seconds * 500L);
+        int live = c.liveWorkers(), lost = c.lostWorkers();
+        double reported = c.bestFitness(), decoded = Double.NaN;
+        byte[] elite = c.bestElite();
+        if (elite != null) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(elite));
+            in.readDouble();
+            decoded = DijksDecoder.DEFAULT.fitness(map, GenomeCodec.dijks(map).read(in), true);
+        }
+        c.stop();
+        threads.get(0).join();
+
+        boolean ok = joined == 2 && live == 1 && lost == 1 && elite != null && decoded == reported;
+        System.out.printf("Smoke %s: joined=%d live=%d lost=%d best=%.1f decoded=%.1f%n",
+                ok ? "passed" : "FAILED", joined, live, lost, reported, decoded);
+        return ok;
+    }
+
+    private static double run(Worker<?> w, String host, int port) throws IOException, InterruptedException {
+        Genome<?> best = w.run(host, port, REPORT_MS);
+        return best == null ? Double.NaN : best.fitness();
+    }
+}
@@ -0,0 +1,97 @@
+package GA_Distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import GA_DIjksDecoder.DijksChromosome;
+import GA_DepthFirstSearch.DFSChromosome;
+import GA_StocasticDecoder.StocasticChromosome;
+import Struct.MazeMap;
+
+// Wire form of a genome: genes as exact doubles, so the fitness sent along with an ELITE belongs
+// to exactly these genes, and junction blocks as a bitset. Received genomes still come back
+// unevaluated (fitness -1): the receiving island decodes them once against its own dead-end
+// knowledge.
+public interface GenomeCodec<G> {
+    void write(G genome, DataOutputStream out) throws IOException;
+
+    G read(DataInputStream in) throws IOException;
+
+    static GenomeCodec<DijksChromosome> dijks(MazeMap map) {
+        return new GenomeCodec<DijksChromosome>() {
+            public void write(DijksChromosome g, DataOutputStream out) throws IOException {
+                writeGenes(g.genes, out);
+            }
+
+            public DijksChromosome read(DataInputStream in) throws IOException {
+                DijksChromosome g = new DijksChromosome(map.rows, map.cols);
+                readGenes(g.genes, in);
+                return g;
+            }
+        };
+    }
+
+    static GenomeCodec<StocasticChromosome> stocastic(MazeMap map) {
+        return new GenomeCodec<StocasticChromosome>() {
+            public void write(StocasticChromosome g, DataOutputStream out) throws IOException {
+                writeGenes(g.genes, out);
+                writeBits(g.junctionBlocks, out);
+            }
+
+            public StocasticChromosome read(DataInputStream in) throws IOException {
+                StocasticChromosome g = new StocasticChromosome(map.rows, map.cols);
+                readGenes(g.genes, in);
+                readBits(g.junctionBlocks, in);
+                return g;
+            }
+        };
+    }
+
+    static GenomeCodec<DFSChromosome> dfs(MazeMap map) {
+        return new GenomeCodec<DFSChromosome>() {
+            public void write(DFSChromosome g, DataOutputStream out) throws IOException {
+                writeGenes(g.genes, out);
+                writeBits(g.junctionBlocks, out);
+            }
+
+            public DFSChromosome read(DataInputStream in) throws IOException {
+                DFSChromosome g = new DFSChromosome(map.rows, map.cols);
+                readGenes(g.genes, in);
+                readBits(g.junctionBlocks, in);
+                return g;
+            }
+        };
+    }
+
+    // --- Field encodings ---
+
+    static void writeGenes(double[] genes, DataOutputStream out) throws IOException {
+        out.writeInt(genes.length);
+        for (double g : genes) out.writeDouble(g);
+    }
+
+    static void readGenes(double[] genes, DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n != genes.length) throw new IOException("Genome has " + n + " genes, expected " + genes.length);
+        for (int i = 0; i < n; i++) genes[i] = in.readDouble();
+    }
+
+    static void writeBits(boolean[] bits, DataOutputStream out) throws IOException {
+        out.writeInt(bits.length);
+        for (int w = 0; w < bits.length; w += 64) {
+            long word = 0;
+            for (int i = w; i < Math.min(w + 64, bits.length); i++) if (bits[i]) word |= 1L << (i - w);
+            out.writeLong(word);
+        }
+    }
+
+    static void readBits(boolean[] bits, DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n != bits.length) throw new IOException("Bitset has " + n + " bits, expected " + bits.length);
+        for (int w = 0; w < n; w += 64) {
+            long word = in.readLong();
+            for (int i = w; i < Math.min(w + 64, n); i++) bits[i] = (word >>> (i - w) & 1) != 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package GA_Distributed;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import Struct.CounterRandom;
+import Struct.MazeMap;
+
+// Binary framing between coordinator and workers (big-endian, java.io.Data* streams):
+//   frame     = byte type, int length, byte[length] payload
+//   HELLO     w->c  long mazeFingerprint, int rows, int cols, UTF strategy
+//   ELITE     both  double fitness, codec bytes (see GenomeCodec)
+//   HEARTBEAT w->c  long generations
+//   STOP      c->w  empty
+// The coordinator never decodes ELITE payloads, it only compares fitness and forwards the bytes.
+public final class Wire {
+    public static final byte HELLO = 1, ELITE = 2, HEARTBEAT = 3, STOP = 4;
+    public static final int MAX_FRAME = 1 << 28;
+
+    private Wire() { }
+
+    public static final class Frame {
+        public final byte type;
+        public final byte[] payload;
+
+        Frame(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+
+    public static void write(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        out.writeByte(type);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    public static Frame read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME) throw new IOException("Bad frame length " + length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(type, payload);
+    }
+
+    // --- Payloads ---
+
+    public interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    public static byte[] payload(Body body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        body.write(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // Identifies a maze by size, endpoints and every cell's weight, so workers that loaded
+    // different files are refused.
+    public static long fingerprint(MazeMap map) {
+        long h = CounterRandom.mix(((long) map.rows << 32) | map.cols);
+        h = CounterRandom.mix(h ^ map.startIdx) + map.goalIdx;
+        for (int r = 0; r < map.rows; r++) {
+            int base = map.index(r, 0);
+            for (int c = 0; c < map.cols; c++) h = CounterRandom.mix(h + map.weight(base + c));
+        }
+        return h;
+    }
+}
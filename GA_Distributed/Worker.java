@@ -0,0 +1,111 @@
+package GA_Distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ThreadLocalRandom;
+
+import GA_Engine.Genome;
+import GA_Engine.IslandModel;
+import Struct.MazeMap;
+
+// One process of a distributed island run: evolves an IslandModel locally and talks to the
+// Coordinator. Every period it sends its best genome if that improved since the last send, and
+// a HEARTBEAT otherwise. Elites arriving from other workers join a random local island as
+// migrants. Stops on STOP, or when the coordinator goes away.
+public class Worker<G extends Genome<G>> {
+    private final MazeMap map;
+    private final String strategy;
+    private final IslandModel<G> model;
+    private final GenomeCodec<G> codec;
+    private volatile boolean stopped;
+
+    public Worker(MazeMap map, String strategy, IslandModel<G> model, GenomeCodec<G> codec) {
+        this.map = map;
+        this.strategy = strategy;
+        this.model = model;
+        this.codec = codec;
+    }
+
+    public IslandModel<G> model() { return model; }
+
+    // Leaves the run: run() returns after the current period and closes the connection, which the
+    // coordinator counts as a lost worker.
+    public void stop() { stopped = true; }
+
+    // Runs until the coordinator says STOP or the connection drops; returns the local best.
+    public G run(String host, int port, long periodMs) throws IOException, InterruptedException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            long fp = Wire.fingerprint(map);
+            Wire.write(out, Wire.HELLO, Wire.payload(o -> {
+                o.writeLong(fp);
+                o.writeInt(map.rows);
+                o.writeInt(map.cols);
+                o.writeUTF(strategy);
+            }));
+
+            Thread evolver = new Thread(() -> {
+                try {
+                    model.run(Integer.MAX_VALUE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "worker-evolve");
+            evolver.setDaemon(true);
+            evolver.start();
+            Thread reader = new Thread(() -> receive(in), "worker-receive");
+            reader.setDaemon(true);
+            reader.start();
+
+            double sent = Double.POSITIVE_INFINITY;
+            try {
+                while (!stopped) {
+                    Thread.sleep(periodMs);
+                    G best = model.best();
+                    if (best != null && best.fitness() < sent) {
+                        sent = best.fitness();
+                        double fitness = sent;
+                        Wire.write(out, Wire.ELITE, Wire.payload(o -> {
+                            o.writeDouble(fitness);
+                            codec.write(best, o);
+                        }));
+                    } else {
+                        long gens = model.generations();
+                        Wire.write(out, Wire.HEARTBEAT, Wire.payload(o -> o.writeLong(gens)));
+                    }
+                }
+            } catch (IOException e) {
+                if (!stopped) System.err.println("Worker: coordinator lost (" + e + ")");
+            } finally {
+                stopped = true;
+                model.stop();
+                evolver.join();
+            }
+        }
+        return model.best();
+    }
+
+    private void receive(DataInputStream in) {
+        try {
+            while (!stopped) {
+                Wire.Frame f = Wire.read(in);
+                if (f.type == Wire.STOP) break;
+                if (f.type != Wire.ELITE) continue;
+                DataInputStream body = new DataInputStream(new ByteArrayInputStream(f.payload));
+                body.readDouble(); // Sender's fitness; the genome is re-decoded here
+                model.offer(ThreadLocalRandom.current().nextInt(model.islands()), codec.read(body));
+            }
+        } catch (IOException e) {
+            // Connection gone; run() notices on its next send
+        }
+        stopped = true;
+        model.stop();
+    }
+}
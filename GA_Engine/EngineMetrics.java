@@ -0,0 +1,68 @@
+package GA_Engine;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Where a GAEngine's time goes: thread CPU time spent breeding and decoding, summed over every
+// thread that did it, against the wall time of the runs. utilization() is the share of the
+// machine's cores kept busy with GA work while a run was going; the sequential parts of a
+// generation show up as the gap to 1.
+public class EngineMetrics {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+    public final int cores = Runtime.getRuntime().availableProcessors();
+    private final LongAdder breedNanos = new LongAdder();
+    private final LongAdder evalNanos = new LongAdder();
+    private final LongAdder wallNanos = new LongAdder();
+    private final LongAdder generations = new LongAdder();
+    private final LongAdder children = new LongAdder();
+
+    // This thread's CPU time (wall time where the JVM cannot measure it).
+    public static long cpuNow() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    void addBreed(long nanos) { breedNanos.add(nanos); }
+
+    void addEval(long nanos) {
+        evalNanos.add(nanos);
+        children.increment();
+    }
+
+    void addRun(long wall, int gens) {
+        wallNanos.add(wall);
+        generations.add(gens);
+    }
+
+    public long breedNanos() { return breedNanos.sum(); }
+
+    public long evalNanos() { return evalNanos.sum(); }
+
+    public long wallNanos() { return wallNanos.sum(); }
+
+    public long generations() { return generations.sum(); }
+
+    public long evaluations() { return children.sum(); }
+
+    public double utilization() {
+        long wall = wallNanos.sum();
+        return wall == 0 ? 0 : (double) (breedNanos.sum() + evalNanos.sum()) / ((double) wall * cores);
+    }
+
+    public void reset() {
+        breedNanos.reset();
+        evalNanos.reset();
+        wallNanos.reset();
+        generations.reset();
+        children.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("gens=%d evals=%d wall=%.0fms breed=%.0fms decode=%.0fms cpu=%.0f%% of %d cores",
+                generations(), evaluations(), wallNanos() / 1e6, breedNanos() / 1e6, evalNanos() / 1e6,
+                utilization() * 100, cores);
+    }
+}
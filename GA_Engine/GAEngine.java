@@ -0,0 +1,236 @@
+package GA_Engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+// The generational loop shared by the maze GAs: sort, keep the elites, breed the rest by
+// selection, crossover and mutation, optionally top up with random immigrants, then evaluate
+// every new genome in one batch. Everything genome-specific comes in through the interfaces
+// below, so a change here applies to every strategy.
+public class GAEngine<G extends Genome<G>> {
+
+    // Fitness of genome with the given share of its full decode budget (1 = full fidelity).
+    // cutoff is the worst elite's fitness: a decoder may stop once it can prove the genome is
+    // worse and return any value above cutoff.
+    public interface Decoder<G> {
+        double fitness(G genome, double budget, double cutoff);
+    }
+
+    public interface Selection<G> {
+        G select(List<G> population, Random rand);
+    }
+
+    public interface Crossover<G> {
+        G cross(G p1, G p2, Random rand);
+    }
+
+    // parent is the first parent the child was bred from.
+    public interface Mutation<G> {
+        void mutate(G child, G parent, double rate);
+    }
+
+    // Returns the fitness of each pending genome, in list order.
+    public interface Evaluation<G> {
+        double[] evaluate(List<G> pending, StagedEvaluator.Scorer<G> scorer);
+    }
+
+    // For generations whose decodes overlap (PipelinedGA): capture() runs at a generation's start
+    // in place of onGeneration and returns the state its decodes must see; enter() makes the
+    // calling thread's decodes see that state, and enter(null) lets them go back to the latest.
+    public interface GenerationState {
+        Object capture();
+
+        void enter(Object state);
+    }
+
+    private final int popSize;
+    private final int elitismCount;
+    private final double crossoverRate;
+    private volatile double mutationRate; // Read by steady-state workers while set from outside
+
+    private final Supplier<G> blank;
+    private final Mutation<G> mutation;
+    private final Decoder<G> decoder;
+    public Selection<G> selection = tournament(5);
+    public Crossover<G> crossover;
+    public Evaluation<G> evaluation = parallel();
+    public double immigrantShare = 0; // Share of each generation replaced by random genomes
+    // Runs before any genome of a new generation is decoded (steady state: every popSize children).
+    public Runnable onGeneration = () -> {};
+    public GenerationState generationState = new GenerationState() {
+        public Object capture() {
+            onGeneration.run();
+            return null;
+        }
+
+        public void enter(Object state) {}
+    };
+    private final Random rand = new Random();
+    public final EngineMetrics metrics = new EngineMetrics();
+
+    public GAEngine(int popSize, double mutationRate, double crossoverRate, int elitismCount,
+                    Supplier<G> blank, Mutation<G> mutation, Decoder<G> decoder) {
+        this.popSize = popSize;
+        this.mutationRate = mutationRate;
+        this.crossoverRate = crossoverRate;
+        this.elitismCount = elitismCount;
+        this.blank = blank;
+        this.mutation = mutation;
+        this.decoder = decoder;
+        this.crossover = uniformCrossover(blank);
+    }
+
+    public void setMutationRate(double newRate) {
+        this.mutationRate = newRate;
+    }
+
+    public Random random() { return rand; }
+
+    public int popSize() { return popSize; }
+
+    public int elitismCount() { return elitismCount; }
+
+    // Immigrants per generation.
+    public int immigrants() { return (int) (popSize * immigrantShare); }
+
+    // A random, unevaluated genome.
+    public G newRandom() {
+        G g = blank.get();
+        g.randomInit();
+        g.setFitness(-1);
+        return g;
+    }
+
+    // Seeds (may be null) come first, random genomes fill the rest. Unevaluated ones are decoded
+    // at full fidelity, one by one.
+    public ArrayList<G> initPopulation(List<G> seeds) {
+        long start = System.nanoTime();
+        onGeneration.run();
+        ArrayList<G> population = new ArrayList<>();
+        if (seeds != null) population.addAll(seeds);
+        while (population.size() < popSize) population.add(newRandom());
+        for (G g : population) if (g.fitness() == -1) evaluate(g);
+        metrics.addRun(System.nanoTime() - start, 0);
+        return population;
+    }
+
+    // One unevaluated child: two selections, crossover (or a clone of the first parent), mutation.
+    // Safe to call from several threads as long as each brings its own rand.
+    public G breed(List<G> population, Random rand) {
+        long cpu = EngineMetrics.cpuNow();
+        G parent1 = selection.select(population, rand);
+        G parent2 = selection.select(population, rand);
+
+        G child;
+        if (rand.nextDouble() < crossoverRate) child = crossover.cross(parent1, parent2, rand);
+        else child = parent1.clone();
+
+        mutation.mutate(child, parent1, mutationRate);
+
+        child.setFitness(-1);
+        metrics.addBreed(EngineMetrics.cpuNow() - cpu);
+        return child;
+    }
+
+    // Full-fidelity fitness of one genome, stored on it and returned.
+    public double evaluate(G g) {
+        return evaluate(g, Double.POSITIVE_INFINITY);
+    }
+
+    // As above, but the decoder may stop early with any value above cutoff (see Decoder).
+    public double evaluate(G g, double cutoff) {
+        g.setFitness(score(g, 1.0, cutoff));
+        return g.fitness();
+    }
+
+    private double score(G g, double budget, double cutoff) {
+        long cpu = EngineMetrics.cpuNow();
+        double fitness = decoder.fitness(g, budget, cutoff);
+        metrics.addEval(EngineMetrics.cpuNow() - cpu);
+        return fitness;
+    }
+
+    public ArrayList<G> evolve(ArrayList<G> population) {
+        long start = System.nanoTime();
+        onGeneration.run();
+        ArrayList<G> newPopulation = new ArrayList<>();
+        Collections.sort(population);
+
+        for (int i = 0; i < elitismCount; i++) newPopulation.add(population.get(i).clone());
+
+        int immigrants = immigrants();
+        int breedCount = popSize - elitismCount - immigrants;
+
+        while (newPopulation.size() < elitismCount + breedCount) newPopulation.add(breed(population, rand));
+
+        for (int i = 0; i < immigrants; i++) newPopulation.add(newRandom());
+
+        double cutoff = elitismCount > 0 ? population.get(elitismCount - 1).fitness() : Double.POSITIVE_INFINITY;
+        List<Integer> pending = new ArrayList<>(); // Slots in newPopulation
+        for (int i = 0; i < newPopulation.size(); i++) if (newPopulation.get(i).fitness() == -1) pending.add(i);
+        // A staged evaluation leaves some genomes UNSCORED; those slots get new children (or new
+        // immigrants) and go round again, so the next generation breeds from popSize scored genomes.
+        // Each round leaves fewer behind, down to a batch small enough to be decoded in full.
+        while (!pending.isEmpty()) {
+            List<G> batch = new ArrayList<>();
+            for (int slot : pending) batch.add(newPopulation.get(slot));
+            double[] fitness = evaluation.evaluate(batch, (g, budget) -> score(g, budget, cutoff));
+            List<Integer> unscored = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setFitness(fitness[i]);
+                if (fitness[i] == StagedEvaluator.UNSCORED) unscored.add(pending.get(i));
+            }
+            if (unscored.size() >= pending.size()) break; // Not converging; keep them as the worst
+            for (int slot : unscored) {
+                newPopulation.set(slot, slot < elitismCount + breedCount ? breed(population, rand) : newRandom());
+            }
+            pending = unscored;
+        }
+
+        metrics.addRun(System.nanoTime() - start, 1);
+        return newPopulation;
+    }
+
+    // --- Stock operators ---
+
+    // Best (lowest fitness) of 'size' uniform draws, with replacement.
+    public static <G extends Genome<G>> Selection<G> tournament(int size) {
+        return (pop, rand) -> {
+            G best = null;
+            for (int i = 0; i < size; i++) {
+                G candidate = pop.get(rand.nextInt(pop.size()));
+                if (best == null || candidate.fitness() < best.fitness()) best = candidate;
+            }
+            return best;
+        };
+    }
+
+    // Each gene from either parent with equal chance.
+    public static <G extends Genome<G>> Crossover<G> uniformCrossover(Supplier<G> blank) {
+        return (p1, p2, rand) -> {
+            G child = blank.get();
+            double[] genes = child.genes(), g1 = p1.genes(), g2 = p2.genes();
+            for (int i = 0; i < genes.length; i++) genes[i] = rand.nextBoolean() ? g1[i] : g2[i];
+            child.setFitness(-1);
+            return child;
+        };
+    }
+
+    // Every genome at full fidelity, in parallel.
+    public static <G> Evaluation<G> parallel() {
+        return (pending, scorer) -> pending.parallelStream().mapToDouble(g -> scorer.score(g, 1.0)).toArray();
+    }
+
+    // Every genome at full fidelity on the calling thread, for callers that are one worker of many.
+    public static <G> Evaluation<G> sequential() {
+        return (pending, scorer) -> pending.stream().mapToDouble(g -> scorer.score(g, 1.0)).toArray();
+    }
+
+    // Two-stage evaluation; genomes it leaves undecoded get StagedEvaluator.UNSCORED.
+    public static <G> Evaluation<G> staged(StagedEvaluator staged) {
+        return staged::evaluate;
+    }
+}
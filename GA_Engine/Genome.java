@@ -0,0 +1,14 @@
+package GA_Engine;
+
+// What GAEngine needs from a chromosome. Fitness is minimised; -1 marks "not evaluated yet".
+public interface Genome<G extends Genome<G>> extends Comparable<G> {
+    double fitness();
+
+    void setFitness(double fitness);
+
+    double[] genes();
+
+    void randomInit();
+
+    G clone();
+}
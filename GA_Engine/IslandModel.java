@@ -0,0 +1,129 @@
+package GA_Engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Island-model GA: each island is its own GAEngine and population, evolved on a dedicated thread
+// with sequential evaluation, so breeding, sorting and selection run in parallel as well as
+// decoding. Every 'interval' generations an island sends copies of its best 'migrants' genomes
+// to a neighbour (next island on a ring, or a random other one). Mailboxes are lock-free queues:
+// sending never waits and an island picks up whatever has arrived before its next generation,
+// replacing its worst genomes. Islands never wait for each other.
+public class IslandModel<G extends Genome<G>> {
+    public enum Topology { RING, RANDOM }
+
+    private final List<GAEngine<G>> engines;
+    private final Topology topology;
+    private final int interval;
+    private final int migrants;
+    private final List<ConcurrentLinkedQueue<G>> mailboxes = new ArrayList<>();
+    private final List<ArrayList<G>> populations = new ArrayList<>();
+    private final AtomicReferenceArray<G> best; // Each island's best so far
+    private final AtomicLong generations = new AtomicLong();
+    private volatile boolean stopped;
+
+    public IslandModel(List<GAEngine<G>> engines, Topology topology, int interval, int migrants) {
+        if (engines.isEmpty()) throw new IllegalArgumentException("No islands");
+        this.engines = engines;
+        this.topology = topology;
+        this.interval = Math.max(1, interval);
+        this.migrants = migrants;
+        this.best = new AtomicReferenceArray<>(engines.size());
+        for (GAEngine<G> engine : engines) {
+            engine.evaluation = GAEngine.sequential();
+            mailboxes.add(new ConcurrentLinkedQueue<>());
+            populations.add(null);
+        }
+    }
+
+    public int islands() { return engines.size(); }
+
+    // Generations completed, summed over all islands.
+    public long generations() { return generations.get(); }
+
+    public G best() {
+        G result = null;
+        for (int i = 0; i < best.length(); i++) {
+            G g = best.get(i);
+            if (g != null && (result == null || g.fitness() < result.fitness())) result = g;
+        }
+        return result;
+    }
+
+    // Island i's population after the last run (null before the first).
+    public List<G> population(int island) { return populations.get(island); }
+
+    // Hands g to an island from outside (e.g. another process); it joins like a migrant.
+    // Unevaluated genomes (fitness -1) are decoded by the receiving island first.
+    public void offer(int island, G g) { mailboxes.get(island).offer(g); }
+
+    // Lets running islands finish their current generation and return. Sticky: a run() that
+    // starts afterwards returns at once, so a stop() racing a run() about to start is not lost.
+    public void stop() { stopped = true; }
+
+    // Clears an earlier stop() so the next run() evolves again.
+    public void resume() { stopped = false; }
+
+    // Evolves every island for the given number of generations and waits for all of them.
+    // A later call continues from the populations the previous one left.
+    public void run(int generationsPerIsland) throws InterruptedException {
+        Thread[] workers = new Thread[engines.size()];
+        for (int i = 0; i < workers.length; i++) {
+            int island = i;
+            workers[i] = new Thread(() -> runIsland(island, generationsPerIsland), "island-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        for (Thread t : workers) t.join();
+    }
+
+    private void runIsland(int island, int count) {
+        if (stopped) return;
+        GAEngine<G> engine = engines.get(island);
+        ArrayList<G> pop = populations.get(island);
+        if (pop == null) pop = engine.initPopulation(null);
+        Random rand = engine.random();
+        for (int gen = 1; gen <= count && !stopped; gen++) {
+            receive(island, engine, pop);
+            pop = engine.evolve(pop);
+            Collections.sort(pop);
+            G top = pop.get(0);
+            G prev = best.get(island);
+            if (prev == null || top.fitness() < prev.fitness()) best.set(island, top.clone());
+            if (gen % interval == 0 && engines.size() > 1) send(island, pop, rand);
+            generations.incrementAndGet();
+        }
+        populations.set(island, pop);
+    }
+
+    // pop is sorted best first.
+    private void send(int island, List<G> pop, Random rand) {
+        int n = engines.size();
+        int target = (topology == Topology.RING) ? (island + 1) % n : (island + 1 + rand.nextInt(n - 1)) % n;
+        ConcurrentLinkedQueue<G> box = mailboxes.get(target);
+        for (int k = 0; k < Math.min(migrants, pop.size()); k++) box.offer(pop.get(k).clone());
+    }
+
+    // Arrivals (already evaluated) replace the worst genomes of pop they beat; its size is kept.
+    private void receive(int island, GAEngine<G> engine, ArrayList<G> pop) {
+        ConcurrentLinkedQueue<G> box = mailboxes.get(island);
+        List<G> arrivals = new ArrayList<>();
+        for (G g; (g = box.poll()) != null; ) {
+            if (g.fitness() == -1) engine.evaluate(g);
+            arrivals.add(g);
+        }
+        if (arrivals.isEmpty()) return;
+        Collections.sort(arrivals);
+        Collections.sort(pop);
+        int slot = pop.size() - 1;
+        for (G g : arrivals) {
+            if (slot < 0 || g.fitness() >= pop.get(slot).fitness()) break;
+            pop.set(slot--, g);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package GA_Engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Generational GA with the generations overlapped. The children of a generation are bred and
+// decoded in small batches on a pool, each batch with its thread's own RNG, so breeding is as
+// parallel as decoding. Every decoded child joins its generation's pool at once, and as soon as
+// 'startShare' of a generation is in, batches of the next one start selecting from whatever the
+// pool holds at that moment; the tail of one generation's decoding overlaps the next one's
+// selection and breeding.
+//
+// Elites are only known once a generation is complete, so they join the next generation then.
+// Until then its batches select from a partial pool and decode against the k-th best fitness
+// seen so far, which is never below the final worst elite, so the cutoff stays safe.
+// Time spent goes to the engine's metrics like evolve()'s does.
+//
+// State the decoders read between generations (the engine's GenerationState) is captured once
+// when a generation starts, and every batch of that generation decodes against it, even while
+// the next generation has already captured a newer one.
+public class PipelinedGA<G extends Genome<G>> {
+    public static final int DEFAULT_BATCH = 4;
+    public static final double DEFAULT_START_SHARE = 0.5;
+
+    private final GAEngine<G> engine;
+    private final ForkJoinPool pool;
+    private final int batch;
+    private final double startShare;
+
+    // State of one run() call. Batches still queued when a run fails only ever see their own
+    // Run, so they cannot disturb the next one, and they return without decoding once cancelled.
+    private final class Run {
+        final int lastGeneration;
+        final CountDownLatch finished = new CountDownLatch(1);
+        volatile Throwable failure;
+        volatile boolean cancelled;
+        volatile Generation last;
+
+        Run(int lastGeneration) { this.lastGeneration = lastGeneration; }
+
+        void fail(Throwable e) {
+            if (failure == null) failure = e;
+            cancelled = true;
+            finished.countDown();
+        }
+    }
+
+    // One generation being filled.
+    private final class Generation {
+        final Run run;
+        final int index;
+        final int size;
+        final int startAt; // Members needed before the next generation may start
+        volatile Object state; // Captured by startNext before any batch of this generation runs
+        final List<G> members = new ArrayList<>();
+        private boolean nextStarted, complete;
+        Generation next;
+
+        Generation(Run run, int index, int size) {
+            this.run = run;
+            this.index = index;
+            this.size = size;
+            this.startAt = Math.max(1, Math.min(size, (int) Math.ceil(startShare * size)));
+        }
+
+        void add(G g) {
+            boolean start, done;
+            Generation child = null;
+            synchronized (this) {
+                members.add(g);
+                start = !nextStarted && members.size() >= startAt && index < run.lastGeneration;
+                if (start) {
+                    nextStarted = true;
+                    next = child = new Generation(run, index + 1, engine.popSize()); // Before completed() can look
+                }
+                done = !complete && members.size() == size;
+                if (done) complete = true;
+            }
+            if (start) startNext(this, child);
+            if (done) completed(this);
+        }
+
+        synchronized List<G> snapshot() { return new ArrayList<>(members); }
+    }
+
+    public PipelinedGA(GAEngine<G> engine, int threads) {
+        this(engine, threads, DEFAULT_BATCH, DEFAULT_START_SHARE);
+    }
+
+    public PipelinedGA(GAEngine<G> engine, int threads, int batch, double startShare) {
+        this.engine = engine;
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.batch = Math.max(1, batch);
+        this.startShare = Math.min(1, Math.max(0, startShare));
+    }
+
+    public GAEngine<G> engine() { return engine; }
+
+    public EngineMetrics metrics() { return engine.metrics; }
+
+    // Runs 'generations' generations from an evaluated population and returns the last one.
+    public ArrayList<G> run(ArrayList<G> population, int generations) throws InterruptedException {
+        if (generations <= 0) return population;
+        long start = System.nanoTime();
+        Run run = new Run(generations);
+        Generation first = new Generation(run, 0, population.size());
+        try {
+            for (G g : population) first.add(g);
+            run.finished.await();
+        } catch (InterruptedException e) {
+            run.cancelled = true;
+            throw e;
+        } catch (Throwable e) {
+            run.fail(e);
+        }
+        engine.metrics.addRun(System.nanoTime() - start, generations);
+        SteadyStateGA.rethrow(run.failure);
+        return new ArrayList<>(run.last.snapshot());
+    }
+
+    public void shutdown() { pool.shutdown(); }
+
+    private void startNext(Generation parent, Generation child) {
+        if (parent.run.cancelled) return;
+        child.state = engine.generationState.capture();
+        int elites = Math.min(engine.elitismCount(), parent.size);
+        int immigrants = engine.immigrants();
+        int children = child.size - elites - immigrants;
+        for (int from = 0; from < children; from += batch) {
+            int count = Math.min(batch, children - from);
+            pool.execute(() -> breedBatch(parent, child, count));
+        }
+        for (int from = 0; from < immigrants; from += batch) {
+            int count = Math.min(batch, immigrants - from);
+            pool.execute(() -> immigrantBatch(child, count));
+        }
+    }
+
+    // Elites of a complete generation go on to the next one (or it was the last).
+    private void completed(Generation gen) {
+        if (gen.index == gen.run.lastGeneration) {
+            gen.run.last = gen;
+            gen.run.finished.countDown();
+            return;
+        }
+        Generation next;
+        synchronized (gen) {
+            next = gen.next;
+            gen.next = null; // So finished generations do not stay reachable from the first
+        }
+        List<G> sorted = gen.snapshot();
+        Collections.sort(sorted);
+        for (int i = 0; i < Math.min(engine.elitismCount(), sorted.size()); i++) next.add(sorted.get(i).clone());
+    }
+
+    private void breedBatch(Generation parent, Generation child, int count) {
+        try {
+            engine.generationState.enter(child.state);
+            Random rand = ThreadLocalRandom.current();
+            List<G> parents = parent.snapshot();
+            double cutoff = kthBest(parents, engine.elitismCount());
+            for (int i = 0; i < count && !child.run.cancelled; i++) {
+                G g = engine.breed(parents, rand);
+                engine.evaluate(g, cutoff);
+                child.add(g);
+            }
+        } catch (Throwable e) { // An Error in a decode must still release run()
+            child.run.fail(e);
+        } finally {
+            engine.generationState.enter(null);
+        }
+    }
+
+    private void immigrantBatch(Generation child, int count) {
+        try {
+            engine.generationState.enter(child.state);
+            for (int i = 0; i < count && !child.run.cancelled; i++) {
+                G g = engine.newRandom();
+                engine.evaluate(g);
+                child.add(g);
+            }
+        } catch (Throwable e) {
+            child.run.fail(e);
+        } finally {
+            engine.generationState.enter(null);
+        }
+    }
+
+    // k-th lowest fitness of pool, or +infinity if it holds fewer than k genomes.
+    private static <G extends Genome<G>> double kthBest(List<G> pool, int k) {
+        if (k <= 0 || pool.size() < k) return Double.POSITIVE_INFINITY;
+        double[] f = new double[pool.size()];
+        for (int i = 0; i < f.length; i++) f[i] = pool.get(i).fitness();
+        Arrays.sort(f);
+        return f[k - 1];
+    }
+}
@@ -0,0 +1,160 @@
+package GA_Engine;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import Struct.DecodeWorkspace;
+
+// Two-stage (multi-fidelity) fitness evaluation for a batch of GA offspring.
+// Stage 1 decodes every item with a small share of its full node/step budget. Items that finish
+// within it already have their exact fitness. Of the ones that ran out, only the best 'promote'
+// share by their rough stage-1 score is decoded again at full fidelity, plus a couple of random
+// others as probes. The rest come back as UNSCORED: a rough score only decides who is decoded
+// again and is never returned as a fitness, so an item that was not fully decoded sorts behind
+// every one that was and can never become an elite or the reported best.
+//
+// After each batch the rank correlation between rough and full scores of the re-decoded items
+// steers the next one: when stage 1 predicts well, budget and promotion shrink; when it does not,
+// they grow. A batch where nothing ran out shrinks the budget. Stage 1 at the full budget is
+// already exact, so a batch run there counts as one where nothing ran out, and the budget steps
+// back down to try a cheaper stage 1 again instead of staying at full fidelity for good.
+public class StagedEvaluator {
+    public static final double MIN_BUDGET = 0.0005, MAX_BUDGET = 1.0;
+    public static final double MIN_PROMOTE = 0.1, MAX_PROMOTE = 1.0;
+    private static final int MIN_BATCH = 8; // Smaller batches are evaluated at full fidelity directly
+    private static final int PROBES = 2;
+    private static final double GOOD_CORRELATION = 0.8, POOR_CORRELATION = 0.5;
+    public static final double UNSCORED = Double.POSITIVE_INFINITY; // Fitness of items left undecoded
+
+    // Scores item with the given share of its full budget (1 = full fidelity). Decoders report
+    // running out of budget through DecodeWorkspace.current().truncated.
+    public interface Scorer<T> {
+        double score(T item, double budget);
+    }
+
+    private double budget;
+    private double promote;
+    private double lastCorrelation = Double.NaN;
+    private final Random rand = new Random();
+
+    public StagedEvaluator() {
+        this(0.01, 0.5);
+    }
+
+    public StagedEvaluator(double budget, double promote) {
+        this.budget = budget;
+        this.promote = promote;
+    }
+
+    public synchronized double budget() { return budget; }
+
+    public synchronized double promoteFraction() { return promote; }
+
+    public synchronized double lastCorrelation() { return lastCorrelation; }
+
+    // Returns the fitness of each item, in list order. Scorers run in parallel.
+    public <T> double[] evaluate(List<T> items, Scorer<T> scorer) {
+        int n = items.size();
+        double stageBudget, share;
+        synchronized (this) {
+            stageBudget = budget;
+            share = promote;
+        }
+        double[] fitness = new double[n];
+        if (n < MIN_BATCH) {
+            IntStream.range(0, n).parallel().forEach(i -> fitness[i] = scorer.score(items.get(i), 1.0));
+            return fitness;
+        }
+
+        // --- Stage 1 ---
+        double[] rough = new double[n];
+        boolean[] cut = new boolean[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            rough[i] = scorer.score(items.get(i), stageBudget);
+            cut[i] = stageBudget < MAX_BUDGET && DecodeWorkspace.current().truncated;
+        });
+        int cutCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (cut[i]) cutCount++;
+            else fitness[i] = rough[i];
+        }
+        if (cutCount == 0) {
+            adapt(new int[0], rough, fitness, false);
+            return fitness;
+        }
+        Integer[] order = new Integer[cutCount];
+        for (int i = 0, k = 0; i < n; i++) if (cut[i]) order[k++] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(rough[a], rough[b]));
+
+        // --- Stage 2 ---
+        int promoted = Math.min(cutCount, Math.max(1, (int) Math.ceil(share * cutCount)));
+        int probes = Math.min(PROBES, cutCount - promoted);
+        int[] rerun = new int[promoted + probes];
+        for (int k = 0; k < promoted; k++) rerun[k] = order[k];
+        for (int k = 0; k < probes; k++) { // Distinct random picks from the tail
+            int j = promoted + k + rand.nextInt(cutCount - promoted - k);
+            Integer t = order[j]; order[j] = order[promoted + k]; order[promoted + k] = t;
+            rerun[promoted + k] = order[promoted + k];
+        }
+        IntStream.of(rerun).parallel().forEach(i -> fitness[i] = scorer.score(items.get(i), 1.0));
+
+        for (int k = promoted + probes; k < cutCount; k++) fitness[order[k]] = UNSCORED;
+
+        adapt(rerun, rough, fitness, true);
+        return fitness;
+    }
+
+    private synchronized void adapt(int[] rerun, double[] rough, double[] fitness, boolean anyCut) {
+        if (!anyCut) { // Every decode finished within stage 1: it can be cheaper
+            budget = Math.max(MIN_BUDGET, budget * 0.8);
+            return;
+        }
+        if (rerun.length < 4) return;
+        double[] a = new double[rerun.length], b = new double[rerun.length];
+        for (int k = 0; k < rerun.length; k++) {
+            a[k] = rough[rerun[k]];
+            b[k] = fitness[rerun[k]];
+        }
+        double rho = spearman(a, b);
+        lastCorrelation = rho;
+        if (rho >= GOOD_CORRELATION) {
+            promote = Math.max(MIN_PROMOTE, promote * 0.8);
+            budget = Math.max(MIN_BUDGET, budget * 0.8);
+        } else if (rho < POOR_CORRELATION) {
+            promote = Math.min(MAX_PROMOTE, promote * 1.25);
+            budget = Math.min(MAX_BUDGET, budget * 1.5);
+        }
+    }
+
+    // Spearman rank correlation; tied values share their average rank.
+    static double spearman(double[] a, double[] b) {
+        double[] ra = ranks(a), rb = ranks(b);
+        int n = a.length;
+        double mean = (n - 1) / 2.0, cov = 0, va = 0, vb = 0;
+        for (int i = 0; i < n; i++) {
+            double x = ra[i] - mean, y = rb[i] - mean;
+            cov += x * y;
+            va += x * x;
+            vb += y * y;
+        }
+        if (va == 0 || vb == 0) return 1.0; // No spread to disagree on
+        return cov / Math.sqrt(va * vb);
+    }
+
+    private static double[] ranks(double[] v) {
+        int n = v.length;
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> Double.compare(v[x], v[y]));
+        double[] rank = new double[n];
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j + 1 < n && v[order[j + 1]] == v[order[i]]) j++;
+            for (int k = i; k <= j; k++) rank[order[k]] = (i + j) / 2.0;
+            i = j + 1;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,172 @@
+package GA_Engine;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Steady-state GA without generations: every step breeds one child from the live population,
+// decodes it and inserts it right away, so a slow decode only holds up its own step. Steps run
+// on a work-stealing pool; each one forks its successor onto its worker's own deque, where an
+// idle worker can steal it. 'chains' steps are in flight at any time, a few more than there
+// are workers so nobody waits for a successor to be forked.
+//
+// The population is a fixed array of slots read and written with atomics only. A child goes
+// into the slot of the worst genome (WORST) or of the worst of TOURNAMENT_SIZE random picks
+// (TOURNAMENT), and only if it is better; a compareAndSet that loses to another insert
+// retries. best() is a plain atomic read and never blocks.
+public class SteadyStateGA<G extends Genome<G>> {
+    public enum Replacement { WORST, TOURNAMENT }
+    public static final int TOURNAMENT_SIZE = 4;
+
+    private final GAEngine<G> engine;
+    private final Replacement replacement;
+    private final ForkJoinPool pool;
+    private final int chains;
+    private final AtomicReferenceArray<G> slots;
+    private final List<G> view; // The slots as a List, for the engine's selection
+    private final AtomicReference<G> best = new AtomicReference<>();
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private volatile long limit;
+    private volatile boolean stopped;
+    private volatile Throwable failure; // First exception or error thrown by a step
+
+    public SteadyStateGA(GAEngine<G> engine, Replacement replacement, int threads) {
+        this.engine = engine;
+        this.replacement = replacement;
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.chains = 2 * pool.getParallelism();
+        List<G> initial = engine.initPopulation(null);
+        this.slots = new AtomicReferenceArray<>(initial.size());
+        for (int i = 0; i < initial.size(); i++) {
+            slots.set(i, initial.get(i));
+            offerBest(initial.get(i));
+        }
+        this.view = new AbstractList<G>() {
+            public G get(int i) { return slots.get(i); }
+
+            public int size() { return slots.length(); }
+        };
+    }
+
+    public G best() { return best.get(); }
+
+    // Children decoded so far, and how many of them made it into the population.
+    public long evaluations() { return evaluations.get(); }
+
+    public long inserted() { return inserted.get(); }
+
+    // Current population, read slot by slot while workers may be inserting.
+    public List<G> snapshot() {
+        List<G> copy = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) copy.add(slots.get(i));
+        return copy;
+    }
+
+    // Breeds and decodes 'count' more children, then returns. stop() ends it early.
+    public void run(long count) throws InterruptedException {
+        long start = System.nanoTime();
+        failure = null;
+        limit = issued.get() + count;
+        CountDownLatch done = new CountDownLatch(chains);
+        for (int i = 0; i < chains; i++) pool.execute(() -> step(done));
+        done.await();
+        engine.metrics.addRun(System.nanoTime() - start, 0);
+        rethrow(failure);
+    }
+
+    // Lets in-flight steps finish and run() return. Sticky like IslandModel.stop(): a run() that
+    // starts afterwards returns at once until resume() is called.
+    public void stop() { stopped = true; }
+
+    public void resume() { stopped = false; }
+
+    public void shutdown() {
+        stopped = true;
+        pool.shutdown();
+    }
+
+    private void step(CountDownLatch done) {
+        long n = issued.getAndIncrement();
+        if (stopped || failure != null || n >= limit) {
+            done.countDown();
+            return;
+        }
+        try {
+            if (n % slots.length() == 0) engine.onGeneration.run();
+            Random rand = ThreadLocalRandom.current();
+            G child = engine.breed(view, rand);
+            double cutoff = replacement == Replacement.WORST ? slots.get(worstSlot()).fitness() : Double.POSITIVE_INFINITY;
+            engine.evaluate(child, cutoff);
+            evaluations.incrementAndGet();
+            if (insert(child, rand)) {
+                inserted.incrementAndGet();
+                offerBest(child);
+            }
+        } catch (Throwable e) { // Errors too (e.g. a StackOverflowError in a decode): the chain must count down
+            if (failure == null) failure = e; // Ends the other chains too
+            done.countDown();
+            return;
+        }
+        ForkJoinTask.adapt(() -> step(done)).fork();
+    }
+
+    // Steps run as lambdas, so anything they throw is unchecked.
+    static void rethrow(Throwable t) {
+        if (t instanceof Error) throw (Error) t;
+        if (t != null) throw (RuntimeException) t;
+    }
+
+    private boolean insert(G child, Random rand) {
+        while (true) {
+            int slot = replacement == Replacement.WORST ? worstSlot() : worstOf(rand);
+            G old = slots.get(slot);
+            if (!(child.fitness() < old.fitness())) return false;
+            if (slots.compareAndSet(slot, old, child)) return true;
+        }
+    }
+
+    private int worstSlot() {
+        int worst = 0;
+        double worstFitness = slots.get(0).fitness();
+        for (int i = 1; i < slots.length(); i++) {
+            double f = slots.get(i).fitness();
+            if (f > worstFitness) {
+                worst = i;
+                worstFitness = f;
+            }
+        }
+        return worst;
+    }
+
+    private int worstOf(Random rand) {
+        int worst = rand.nextInt(slots.length());
+        double worstFitness = slots.get(worst).fitness();
+        for (int k = 1; k < TOURNAMENT_SIZE; k++) {
+            int i = rand.nextInt(slots.length());
+            double f = slots.get(i).fitness();
+            if (f > worstFitness) {
+                worst = i;
+                worstFitness = f;
+            }
+        }
+        return worst;
+    }
+
+    private void offerBest(G g) {
+        G cur;
+        do {
+            cur = best.get();
+            if (cur != null && cur.fitness() <= g.fitness()) return;
+        } while (!best.compareAndSet(cur, g));
+    }
+}
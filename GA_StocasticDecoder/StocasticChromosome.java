@@ -3,11 +3,15 @@ package GA_StocasticDecoder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+import GA_Engine.Genome;
+import Struct.CounterRandom;
+import Struct.DeadEndKnowledge;
 import Struct.MazeMap;
 import Struct.Point;
 
-public class StocasticChromosome implements Comparable<StocasticChromosome> {
+public class StocasticChromosome implements Genome<StocasticChromosome> {
     public double[] genes; 
     public double fitness = -1;
     public int rows, cols;
@@ -15,7 +19,7 @@ public class StocasticChromosome implements Comparable<StocasticChromosome> {
     public boolean[] junctionBlocks;
     public List<Point> path = new ArrayList<>(); 
     
-    private static final Random rand = new Random();
+    private static Random rand() { return ThreadLocalRandom.current(); }
 
     public static final int MUTATION_RANDOM = 0;
     public static final int MUTATION_FLIP   = 1;
@@ -30,7 +34,7 @@ public class StocasticChromosome implements Comparable<StocasticChromosome> {
 
     public void randomInit() {
         for (int i = 0; i < genes.length; i++) {
-            genes[i] = rand.nextDouble();
+            genes[i] = rand().nextDouble();
             junctionBlocks[i] = false; 
         }
     }
@@ -51,23 +55,23 @@ public class StocasticChromosome implements Comparable<StocasticChromosome> {
         return genes[r * cols + c];
     }
     
-    public void mutate(double mutationRate, int mode, List<Point> parentPath, MazeMap map) {
+    public void mutate(double mutationRate, int mode, List<Point> parentPath, MazeMap map, DeadEndKnowledge knowledge) {
         for (int i = 0; i < genes.length; i++) {
-            if (rand.nextDouble() < mutationRate) genes[i] = rand.nextDouble();
-            if (junctionBlocks[i] && rand.nextDouble() < 0.15) junctionBlocks[i] = false; 
+            if (rand().nextDouble() < mutationRate) genes[i] = rand().nextDouble();
+            if (junctionBlocks[i] && rand().nextDouble() < 0.15) junctionBlocks[i] = false; 
         }
 
         if (parentPath != null && parentPath.size() >= 5) {
-            if (rand.nextDouble() < 0.6) {
-                int targetBlocks = 1 + rand.nextInt(3); 
+            if (rand().nextDouble() < 0.6) {
+                int targetBlocks = 1 + rand().nextInt(3); 
                 int blocksDone = 0;
                 int maxTries = 50; 
                 while (blocksDone < targetBlocks && maxTries-- > 0) {
-                    int idx = rand.nextInt(parentPath.size() - 1);
+                    int idx = rand().nextInt(parentPath.size() - 1);
                     Point curr = parentPath.get(idx);
                     if ((curr.r == map.start.r && curr.c == map.start.c) || 
                         (curr.r == map.goal.r && curr.c == map.goal.c)) continue;
-                    if (isJunction(map, curr.r, curr.c)) {
+                    if (isJunction(map, knowledge, curr.r, curr.c)) {
                         Point nextStep = parentPath.get(idx + 1);
                         if ((nextStep.r == map.goal.r && nextStep.c == map.goal.c) ||
                             isMyBlock(nextStep.r, nextStep.c)) {
@@ -83,12 +87,12 @@ public class StocasticChromosome implements Comparable<StocasticChromosome> {
         this.fitness = -1; 
     }
     
-    private boolean isJunction(MazeMap map, int r, int c) {
+    private boolean isJunction(MazeMap map, DeadEndKnowledge knowledge, int r, int c) {
         int ways = 0;
         int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
         for (int[] d : dirs) {
             int nr = r + d[0], nc = c + d[1];
-            if (map.isValid(nr, nc) && !StocasticGlobalKnowledge.isDeadEnd(nr, nc)) {
+            if (map.isValid(nr, nc) && !knowledge.isDeadEnd(nr, nc)) {
                 ways++;
             }
         }
@@ -100,11 +104,20 @@ public class StocasticChromosome implements Comparable<StocasticChromosome> {
             boolean w1 = p1.junctionBlocks[i];
             boolean w2 = p2.junctionBlocks[i];
             if (w1 && w2) this.junctionBlocks[i] = true;
-            else if (w1 || w2) this.junctionBlocks[i] = rand.nextBoolean();
+            else if (w1 || w2) this.junctionBlocks[i] = rand().nextBoolean();
             else this.junctionBlocks[i] = false;
         }
     }
 
+    // Hash of the genome's content (genes and junction blocks), equal for equal genomes in any JVM.
+    public long contentHash() {
+        long h = genes.length;
+        for (int i = 0; i < genes.length; i++) {
+            h = CounterRandom.mix(h ^ Double.doubleToLongBits(genes[i])) + (junctionBlocks[i] ? i + 1 : 0);
+        }
+        return h;
+    }
+
     public StocasticChromosome clone() {
         StocasticChromosome c = new StocasticChromosome(rows, cols);
         System.arraycopy(this.genes, 0, c.genes, 0, genes.length);
@@ -114,6 +127,12 @@ public class StocasticChromosome implements Comparable<StocasticChromosome> {
         return c;
     }
 
+    public double fitness() { return fitness; }
+
+    public void setFitness(double fitness) { this.fitness = fitness; }
+
+    public double[] genes() { return genes; }
+
     @Override
     public int compareTo(StocasticChromosome other) {
         return Double.compare(this.fitness, other.fitness);
@@ -2,94 +2,119 @@ package GA_StocasticDecoder;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
+import MazeSolverAlgo.DeadEndMap;
+import Struct.CounterRandom;
+import Struct.DecodeWorkspace;
+import Struct.DeadEndKnowledge;
 import Struct.MazeMap;
 import Struct.Point;
 
 public class StocasticDecoder {
     
-    public static double calculateFitness(MazeMap map, StocasticChromosome chromo, List<Point> path) {
-        path.clear();
-        Point start = map.start;
-        Point goal = map.goal;
-
-        int curR = start.r;
-        int curC = start.c;
+    public static final long DEFAULT_SEED = 0;
 
-        path.add(new Point(curR, curC));
-        boolean[][] isVisited = new boolean[map.rows][map.cols];
-        isVisited[curR][curC] = true;
+    public static double calculateFitness(MazeMap map, DeadEndKnowledge knowledge, StocasticChromosome chromo, List<Point> path) {
+        return calculateFitness(map, knowledge, chromo, path, fullBudget(map), DEFAULT_SEED);
+    }
 
-        int maxSteps = map.rows * map.cols * 10; 
-        Random deterministicRand = new Random(chromo.hashCode());
+    // Full-fidelity step budget; smaller budgets give a cheaper, cruder score (see StagedEvaluator).
+    public static int fullBudget(MazeMap map) { return map.rows * map.cols * 10; }
 
-        for (int step = 0; step < maxSteps; step++) {
+    // Move choices come from a counter-based stream keyed by the genome's content and runSeed, and
+    // learned dead ends are read from knowledge.published(), fixed for the whole decode. The same
+    // genome therefore decodes the same way on any thread as long as seed and published
+    // knowledge match, e.g. throughout one generation. New marks go to the live knowledge and
+    // only take effect after the next publish().
+    public static double calculateFitness(MazeMap map, DeadEndKnowledge knowledge, StocasticChromosome chromo, List<Point> path, int maxSteps, long runSeed) {
+        path.clear();
+        int[] offsets = map.dirOffsets;
+        int[] denseOffsets = map.denseOffsets;
+        int startIdx = map.startIdx;
+        int goalIdx = map.goalIdx;
+        DeadEndMap filled = DeadEndMap.forMap(map); // Static dead ends, shared by every decode of this map
+        DeadEndKnowledge.Snapshot known = knowledge.published();
+
+        // Path is kept as a stack of cell indices (thread-local, reused) and only turned into Points on exit.
+        DecodeWorkspace ws = DecodeWorkspace.acquire(map.size());
+        int[] stack = ws.stack;
+        int top = 0;
+
+        int cur = startIdx;
+        int curDense = map.denseOf(startIdx);
+        stack[top++] = cur;
+        ws.visit(cur);
+
+        long rngKey = CounterRandom.key(runSeed, chromo.contentHash());
+        long draws = 0;
+
+        int[] moves = ws.moves;
+        double[] probs = ws.weights;
+
+        int step = 0;
+        for (; step < maxSteps; step++) {
             
-            if (curR == goal.r && curC == goal.c) {
+            if (cur == goalIdx) {
                 double totalCost = 0;
-                for (Point p : path) totalCost += map.getWeight(p.r, p.c);
+                for (int i = 0; i < top; i++) totalCost += map.weight(stack[i]);
+                toPoints(map, stack, top, path);
                 return totalCost;
             }
 
-            List<Point> validMoves = new ArrayList<>();
-            List<Double> probs = new ArrayList<>();
+            int moveCount = 0;
             double sumPriority = 0;
 
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}}; 
+            for (int d = 0; d < 4; d++) {
+                int next = cur + offsets[d];
+                int nextDense = curDense + denseOffsets[d];
 
-            for (int[] d : dirs) {
-                int nr = curR + d[0];
-                int nc = curC + d[1];
-
-                if (map.isValid(nr, nc) && !isVisited[nr][nc] 
-                    && !StocasticGlobalKnowledge.isDeadEnd(nr, nc) 
-                    && !chromo.isMyBlock(nr, nc)) {
+                if (map.isOpen(next) && !filled.isDeadEnd(next) && !ws.visited(next) 
+                    && !known.isDeadEnd(nextDense) 
+                    && !chromo.junctionBlocks[nextDense]) {
                         
-                    double p = chromo.getPriority(nr, nc);
+                    double p = chromo.genes[nextDense];
                     if (p < 0.001) p = 0.001; 
                     
-                    validMoves.add(new Point(nr, nc));
-                    probs.add(p);
+                    moves[moveCount] = d;
+                    probs[moveCount] = p;
+                    moveCount++;
                     sumPriority += p;
                 }
             }
 
-            if (!validMoves.isEmpty()) {
-                double randVal = deterministicRand.nextDouble() * sumPriority;
+            if (moveCount > 0) {
+                double randVal = CounterRandom.nextDouble(rngKey, draws++) * sumPriority;
                 double runningSum = 0;
-                int selectedIdx = validMoves.size() - 1;
-                for (int i = 0; i < validMoves.size(); i++) {
-                    runningSum += probs.get(i);
+                int selectedIdx = moveCount - 1;
+                for (int i = 0; i < moveCount; i++) {
+                    runningSum += probs[i];
                     if (randVal <= runningSum) { selectedIdx = i; break; }
                 }
-                Point nextMove = validMoves.get(selectedIdx);
-                curR = nextMove.r;
-                curC = nextMove.c;
-                isVisited[curR][curC] = true;
-                path.add(new Point(curR, curC));
+                int d = moves[selectedIdx];
+                cur += offsets[d];
+                curDense += denseOffsets[d];
+                ws.visit(cur);
+                stack[top++] = cur;
                 
             } else {
-                if (path.size() > 1) {
-                    int badR = curR;
-                    int badC = curC;
+                if (top > 1) {
+                    int bad = cur;
+                    int badDense = curDense;
                     
-                    path.remove(path.size() - 1); 
-                    Point prev = path.get(path.size() - 1);
-                    curR = prev.r;
-                    curC = prev.c;
+                    top--;
+                    cur = stack[top - 1];
+                    curDense = map.denseOf(cur);
 
                     int openExits = 0;
-                    for (int[] d : dirs) {
-                        int nr = badR + d[0];
-                        int nc = badC + d[1];
-                        if (map.isValid(nr, nc) && !StocasticGlobalKnowledge.isDeadEnd(nr, nc) && !(badR == map.start.r && badC == map.start.c)) { //fix start
+                    for (int d = 0; d < 4; d++) {
+                        int n = bad + offsets[d];
+                        if (map.isOpen(n) && !filled.isDeadEnd(n) && !known.isDeadEnd(badDense + denseOffsets[d]) && bad != startIdx) { //fix start
                             openExits++;
                         }
                     }
 
                     if (openExits <= 1) {
-                        StocasticGlobalKnowledge.markDeadEnd(badR, badC);
+                        knowledge.markDeadEnd(badDense);
                     }
                     
                 } else {
@@ -98,8 +123,11 @@ public class StocasticDecoder {
             }
         }
 
-        double distR = Math.abs(curR - goal.r);
-        double distC = Math.abs(curC - goal.c);
+        ws.truncated = step >= maxSteps;
+        toPoints(map, stack, top, path);
+
+        double distR = Math.abs(map.rowOf(cur) - map.goal.r);
+        double distC = Math.abs(map.colOf(cur) - map.goal.c);
         double manhattanDist = distR + distC;
 
         double basePenalty = map.rows * map.cols * 10;
@@ -111,11 +139,15 @@ public class StocasticDecoder {
         return basePenalty + distancePenalty;
     }
 
+    private static void toPoints(MazeMap map, int[] stack, int top, List<Point> path) {
+        for (int i = 0; i < top; i++) path.add(map.toPoint(stack[i]));
+    }
+
 
-    public static List<Point> getPath(MazeMap map, StocasticChromosome c, boolean b) {
+    public static List<Point> getPath(MazeMap map, DeadEndKnowledge knowledge, StocasticChromosome c, long runSeed) {
         List<Point> p = new ArrayList<>();
-        calculateFitness(map, c, p);
+        calculateFitness(map, knowledge, c, p, fullBudget(map), runSeed);
         return p;
     }
 
-}
\ No newline at end of file
+}
@@ -1,131 +1,108 @@
 package GA_StocasticDecoder;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
-
+import java.util.function.IntSupplier;
+
+import GA_Engine.GAEngine;
+import GA_Engine.IslandModel;
+import GA_Engine.PipelinedGA;
+import GA_Engine.StagedEvaluator;
+import GA_Engine.SteadyStateGA;
+import Struct.DeadEndKnowledge;
 import Struct.MazeMap;
 import Struct.Point;
 
 public class StocasticGA {
-    private int popSize;        
-    private double mutationRate; 
+    private int popSize;
+    private double mutationRate;
     private double crossoverRate;
     private int elitismCount;
 
     private MazeMap map;
-    private Random rand = new Random();
+    public final DeadEndKnowledge knowledge; // Dead ends learned by this run's decoders
+    public final StagedEvaluator staged = new StagedEvaluator();
+    public final long seed; // Keys the decoders' move choices (see StocasticDecoder)
+    public final GAEngine<StocasticChromosome> engine;
+    private int mutationMode; // Of the current evolve() call
 
     public StocasticGA(MazeMap map, int popSize, double mutationRate, double crossoverRate, int elitismCount) {
+        this(map, popSize, mutationRate, crossoverRate, elitismCount, StocasticDecoder.DEFAULT_SEED);
+    }
+
+    public StocasticGA(MazeMap map, int popSize, double mutationRate, double crossoverRate, int elitismCount, long seed) {
+        this.seed = seed;
         this.map = map;
         this.popSize = popSize;
         this.mutationRate = mutationRate;
         this.crossoverRate = crossoverRate;
         this.elitismCount = elitismCount;
-        StocasticGlobalKnowledge.init(map.rows, map.cols);
+        this.knowledge = new DeadEndKnowledge(map.rows, map.cols);
+        this.engine = newEngine(() -> this.mutationMode);
     }
 
-    public ArrayList<StocasticChromosome> initPopulation() {
-        ArrayList<StocasticChromosome> population = new ArrayList<>();
-        for (int i = 0; i < popSize; i++) {
-            StocasticChromosome c = new StocasticChromosome(map.rows, map.cols);
-            c.randomInit(); 
-            c.path = new ArrayList<>(); 
-            c.fitness = StocasticDecoder.calculateFitness(map, c, c.path);
-            population.add(c);
-        }
-        return population;
-    }
-
-    public ArrayList<StocasticChromosome> evolve(ArrayList<StocasticChromosome> population, boolean useHeuristic, int mutationMode) {
-        ArrayList<StocasticChromosome> newPopulation = new ArrayList<>();
-        Collections.sort(population);
-        
-        for (int i = 0; i < elitismCount; i++) {
-            StocasticChromosome original = population.get(i);
-            StocasticChromosome clone = original.clone();
-        
-            if (clone.path == null || clone.path.isEmpty()) {
-                if (original.path != null) {
-                    clone.path = new ArrayList<>(original.path);
-                }
+    private GAEngine<StocasticChromosome> newEngine(IntSupplier mutationMode) {
+        int fullSteps = StocasticDecoder.fullBudget(map);
+        GAEngine<StocasticChromosome> engine = new GAEngine<>(popSize, mutationRate, crossoverRate, elitismCount,
+                () -> new StocasticChromosome(map.rows, map.cols),
+                (child, parent, rate) -> child.mutate(rate, mutationMode.getAsInt(), parent.path, map, knowledge),
+                (child, budget, cutoff) -> {
+                    List<Point> tempPath = new ArrayList<>();
+                    int steps = (int) Math.max(1, Math.min(fullSteps, budget * fullSteps));
+                    double fitness = StocasticDecoder.calculateFitness(map, knowledge, child, tempPath, steps, seed);
+                    child.path = tempPath;
+                    return fitness;
+                });
+        GAEngine.Crossover<StocasticChromosome> uniform = engine.crossover;
+        engine.crossover = (p1, p2, rand) -> {
+            StocasticChromosome child = uniform.cross(p1, p2, rand);
+            child.inheritWalls(p1, p2);
+            return child;
+        };
+        engine.immigrantShare = 0.15;
+        engine.onGeneration = knowledge::publish; // Decoders read dead ends as of the generation start
+        engine.generationState = new GAEngine.GenerationState() {
+            public Object capture() {
+                knowledge.publish();
+                return knowledge.published();
             }
 
-            newPopulation.add(clone);
-        }
-
-        int freshBloodCount = (int)(popSize * 0.15); 
-        int breedCount = popSize - elitismCount - freshBloodCount;
-
-        while (newPopulation.size() < elitismCount + breedCount) {
-            StocasticChromosome parent1 = tournamentSelection(population);
-            StocasticChromosome parent2 = tournamentSelection(population);
+            public void enter(Object state) { knowledge.pin((DeadEndKnowledge.Snapshot) state); }
+        };
+        return engine;
+    }
 
-            StocasticChromosome child;
-            if (rand.nextDouble() < crossoverRate) {
-                child = uniformCrossover(parent1, parent2);
-            } else {
-                child = parent1.clone();
-            }
+    // Island mode: 'count' independent populations of popSize each, sharing this run's dead-end knowledge.
+    public IslandModel<StocasticChromosome> islands(int count, IslandModel.Topology topology, int interval, int migrants, int mutationMode) {
+        List<GAEngine<StocasticChromosome>> engines = new ArrayList<>();
+        for (int i = 0; i < count; i++) engines.add(newEngine(() -> mutationMode));
+        return new IslandModel<>(engines, topology, interval, migrants);
+    }
 
-            child.mutate(mutationRate, mutationMode, parent1.path,map);
+    public SteadyStateGA<StocasticChromosome> steadyState(int threads, SteadyStateGA.Replacement replacement, int mutationMode) {
+        return new SteadyStateGA<>(newEngine(() -> mutationMode), replacement, threads);
+    }
 
-            if (child.fitness != -1) child.fitness = -1; 
-            newPopulation.add(child);
-        }
+    public PipelinedGA<StocasticChromosome> pipelined(int threads, int mutationMode) {
+        return new PipelinedGA<>(newEngine(() -> mutationMode), threads);
+    }
 
-        for (int i = 0; i < freshBloodCount; i++) {
-            StocasticChromosome immigrant = new StocasticChromosome(map.rows, map.cols);
-            immigrant.randomInit();
-            immigrant.fitness = -1;
-            newPopulation.add(immigrant);
-        }
+    public ArrayList<StocasticChromosome> initPopulation() {
+        return engine.initPopulation(null);
+    }
 
-        newPopulation.parallelStream().forEach(child -> {
-            if (child.fitness == -1) {
-                List<Point> tempPath = new ArrayList<>();
-                child.fitness = StocasticDecoder.calculateFitness(map, child, tempPath);
-                child.path = tempPath;
-            }
-        });
-        
-        return newPopulation;
+    public ArrayList<StocasticChromosome> evolve(ArrayList<StocasticChromosome> population, boolean useHeuristic, int mutationMode) {
+        this.mutationMode = mutationMode;
+        return engine.evolve(population);
     }
 
     public void setMutationRate(double newRate) {
         this.mutationRate = newRate;
+        engine.setMutationRate(newRate);
     }
 
-    private StocasticChromosome tournamentSelection(ArrayList<StocasticChromosome> pop) {
-        int tournamentSize = 5;
-        StocasticChromosome best = null;
-
-        for (int i = 0; i < tournamentSize; i++) {
-            int randomIndex = rand.nextInt(pop.size());
-            StocasticChromosome candidate = pop.get(randomIndex);
-
-            if (best == null || candidate.fitness < best.fitness) {
-                best = candidate;
-            }
-        }
-        return best;
-    }
-
-    private StocasticChromosome uniformCrossover(StocasticChromosome p1, StocasticChromosome p2) {
-        StocasticChromosome child = new StocasticChromosome(map.rows, map.cols);
-        
-        for (int i = 0; i < child.genes.length; i++) {
-            if (rand.nextBoolean()) {
-                child.genes[i] = p1.genes[i];
-            } else {
-                child.genes[i] = p2.genes[i];
-            }
-        }
-
-        child.inheritWalls(p1, p2);
-    
-        child.fitness = -1;
-        return child;
+    // Staged (multi-fidelity) evaluation of offspring; off unless enabled here.
+    public void setStagedEvaluation(boolean enabled) {
+        engine.evaluation = enabled ? GAEngine.staged(staged) : GAEngine.parallel();
     }
-}
\ No newline at end of file
+}
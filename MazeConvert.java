@@ -0,0 +1,38 @@
+import java.io.File;
+import java.io.IOException;
+
+import Struct.MazeBinary;
+import Struct.MazeMap;
+import Struct.Reader;
+
+// Converts text mazes to the binary .mzb format, writing each file next to its source.
+// Usage: java MazeConvert [file-or-directory ...]   (defaults to the MAZE directory)
+public class MazeConvert {
+    public static void main(String[] args) {
+        if (args.length == 0) args = new String[] { "MAZE" };
+        int done = 0, failed = 0;
+        Reader reader = new Reader();
+        for (String arg : args) {
+            File f = new File(arg);
+            File[] files = f.isDirectory() ? f.listFiles((d, name) -> name.endsWith(".txt")) : new File[] { f };
+            if (files == null) continue;
+            for (File src : files) {
+                String name = src.getName();
+                int dot = name.lastIndexOf('.');
+                File dst = new File(src.getParentFile(), (dot < 0 ? name : name.substring(0, dot)) + MazeBinary.EXTENSION);
+                MazeMap map = reader.readMap(src.getPath());
+                if (map == null) { failed++; continue; }
+                try {
+                    MazeBinary.write(dst.toPath(), map);
+                    System.out.printf("%s -> %s (%d -> %d bytes)%n", name, dst.getName(), src.length(), dst.length());
+                    done++;
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("Skipped " + name + ": " + e.getMessage());
+                    dst.delete();
+                    failed++;
+                }
+            }
+        }
+        System.out.println("Converted " + done + " file(s), " + failed + " failed.");
+    }
+}
@@ -5,6 +5,10 @@ import java.io.IOException;
 import java.util.Random;
 import java.util.Scanner;
 
+import Struct.MazeBinary;
+import Struct.MazeMap;
+import Struct.Point;
+
 public class MazeGen_Ver2 {
     static File dir = new File("MAZE");
     
@@ -35,6 +39,9 @@ public class MazeGen_Ver2 {
         System.out.print("Enter Extra Paths % (0-100): ");
         int densityInput = sc.nextInt();
         double loopFactor = densityInput / 100.0;
+
+        System.out.print("Save as binary .mzb? (y/n): ");
+        boolean binary = sc.next().trim().equalsIgnoreCase("y");
         
         sc.close();
 
@@ -57,8 +64,8 @@ public class MazeGen_Ver2 {
         connectGoalToMaze();
 
 
-        String filename = "m" + ROWS + "_" + COLS + ".txt";
-        saveMazeOptimized(filename);
+        String filename = "m" + ROWS + "_" + COLS + (binary ? MazeBinary.EXTENSION : ".txt");
+        saveMazeOptimized(filename, binary);
     }
 
     private static int randomWeight() {
@@ -156,10 +163,25 @@ public class MazeGen_Ver2 {
     }
 
     // --- FILE SAVING ---
-    private static void saveMazeOptimized(String filename) {
+    private static void saveMazeOptimized(String filename, boolean binary) {
         File file = new File(dir, filename);
         if (file.exists()) file = getUniqueFile(file);
 
+        if (binary) {
+            try {
+                // Same cell rules as the text writer below: border/0 -> wall, S and G -> 0
+                MazeBinary.write(file.toPath(), ROWS, COLS, new Point(START_ROW, START_COL), new Point(GOAL_ROW, GOAL_COL), (i, j) -> {
+                    if (i == 0 || i == ROWS - 1 || j == 0 || j == COLS - 1) return MazeMap.WALL;
+                    if ((i == START_ROW && j == START_COL) || (i == GOAL_ROW && j == GOAL_COL)) return 0;
+                    return grid[i][j] == 0 ? MazeMap.WALL : grid[i][j];
+                });
+                System.out.println("Saved: " + file.getName());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(file), 32768)) {
             StringBuilder sb = new StringBuilder();
 
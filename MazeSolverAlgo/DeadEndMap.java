@@ -0,0 +1,160 @@
+package MazeSolverAlgo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import Struct.MazeCache;
+import Struct.MazeMap;
+import Struct.Point;
+
+// Dead-end filling: open cells with at most one open neighbour (other than start and goal) are
+// removed, which may leave their neighbour with one, and so on until only cells on cycles or
+// between start and goal remain. No simple start-goal path ever enters a filled cell, so
+// searches and decoders can skip them without losing any solution.
+// The result is an immutable bitset over cell indices, built once per map and shared.
+//
+// Large maps are filled in horizontal bands in parallel: every band owns the degree counters of
+// its own rows and runs its own work queue; a removal next to another band is posted to that band
+// and applied in the next round, until no band has messages left.
+public class DeadEndMap {
+    private static final int PARALLEL_MIN_CELLS = 1 << 20;
+    private static final int MIN_BAND_ROWS = 64;
+    private static final byte FILLED = -1;
+
+    private final long[] bits;
+    private final int count;
+
+    public static DeadEndMap forMap(MazeMap map) {
+        return MazeCache.shared().artifact(map, "deadEnds", m -> new DeadEndMap(m, m.size() >= PARALLEL_MIN_CELLS), DeadEndMap::bytes);
+    }
+
+    public DeadEndMap(MazeMap map, boolean parallel) {
+        int n = map.size();
+        byte[] degree = new byte[n];
+        int bands = 1;
+        if (parallel) {
+            bands = Math.min(map.rows / MIN_BAND_ROWS, Runtime.getRuntime().availableProcessors() * 4);
+            bands = Math.max(1, bands);
+        }
+        Band[] all = new Band[bands];
+        for (int b = 0; b < bands; b++) {
+            int firstRow = (int) ((long) map.rows * b / bands), endRow = (int) ((long) map.rows * (b + 1) / bands);
+            all[b] = new Band(map, degree, firstRow, endRow);
+        }
+
+        IntStream.range(0, bands).parallel().forEach(b -> all[b].seed());
+        boolean pending = true;
+        while (pending) {
+            IntStream.range(0, bands).parallel().forEach(b -> all[b].drain());
+            pending = false;
+            for (int b = 0; b < bands; b++) {
+                Band band = all[b];
+                if (b > 0) band.receive(all[b - 1].toNext);
+                if (b + 1 < bands) band.receive(all[b + 1].toPrev);
+            }
+            for (Band band : all) {
+                band.toPrev.size = 0;
+                band.toNext.size = 0;
+                if (band.queue.size > 0) pending = true;
+            }
+        }
+
+        // --- Pack ---
+        bits = new long[(n + 63) >>> 6];
+        IntStream.range(0, bits.length).parallel().forEach(w -> {
+            long word = 0;
+            for (int i = w << 6, end = Math.min(n, i + 64); i < end; i++) {
+                if (degree[i] == FILLED) word |= 1L << i;
+            }
+            bits[w] = word;
+        });
+        int c = 0;
+        for (long w : bits) c += Long.bitCount(w);
+        count = c;
+    }
+
+    public boolean isDeadEnd(int idx) { return (bits[idx >>> 6] >>> idx & 1) != 0; }
+
+    public int count() { return count; }
+
+    public long bytes() { return 8L * bits.length; }
+
+    public List<Point> points(MazeMap map) {
+        List<Point> out = new ArrayList<>(count);
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                out.add(map.toPoint((w << 6) + Long.numberOfTrailingZeros(word)));
+            }
+        }
+        return out;
+    }
+
+    // --- Banded fill ---
+
+    private static final class Band {
+        final MazeMap map;
+        final byte[] degree;
+        final int lo, hi; // Cell index range [lo, hi) owned by this band
+        final IntList queue = new IntList();
+        final IntList toPrev = new IntList(); // Cells in the band above that lost a neighbour
+        final IntList toNext = new IntList();
+
+        Band(MazeMap map, byte[] degree, int firstRow, int endRow) {
+            this.map = map;
+            this.degree = degree;
+            this.lo = map.index(firstRow, -1);
+            this.hi = map.index(endRow, -1);
+        }
+
+        void seed() {
+            int[] offsets = map.dirOffsets;
+            for (int idx = lo; idx < hi; idx++) {
+                if (!map.isOpen(idx)) continue;
+                int d = 0;
+                for (int k = 0; k < 4; k++) {
+                    int u = idx + offsets[k];
+                    if (map.isOpen(u) || isEndpoint(u)) d++; // Searches start from S even if it is walled
+                }
+                degree[idx] = (byte) d;
+                if (d <= 1 && !isEndpoint(idx)) queue.add(idx);
+            }
+        }
+
+        void drain() {
+            int[] offsets = map.dirOffsets;
+            while (queue.size > 0) {
+                int v = queue.data[--queue.size];
+                degree[v] = FILLED;
+                for (int k = 0; k < 4; k++) {
+                    int u = v + offsets[k];
+                    if (!map.isOpen(u)) continue;
+                    if (u < lo) toPrev.add(u);
+                    else if (u >= hi) toNext.add(u);
+                    else lose(u);
+                }
+            }
+        }
+
+        void receive(IntList lost) {
+            for (int i = 0; i < lost.size; i++) lose(lost.data[i]);
+        }
+
+        private void lose(int u) {
+            if (degree[u] >= 1 && --degree[u] == 1 && !isEndpoint(u)) queue.add(u);
+        }
+
+        private boolean isEndpoint(int idx) { return idx == map.startIdx || idx == map.goalIdx; }
+    }
+
+    private static final class IntList {
+        int[] data = new int[64];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package MazeSolverAlgo;
+
+import java.util.Arrays;
+import java.util.List;
+
+import Struct.CellStore;
+import Struct.MazeCache;
+import Struct.MazeMap;
+import Struct.Point;
+
+// Maze contracted to its decision points. Nodes are junctions (3+ open neighbours), dead ends,
+// start and goal; every run of two-neighbour corridor cells between two nodes becomes one edge.
+// Adjacency is CSR (adjStart/adjNode/adjEdge), each edge listed once per endpoint.
+// An edge keeps the summed weight of its interior cells plus its steps from edgeA to edgeB
+// packed at 2 bits per step (MazeMap direction order), so a corridor costs ~1/16 of an int[] path.
+// Travelling a -> b costs interior + w(b), b -> a costs interior + w(a).
+public class JunctionGraph {
+    public final int nodeCount;
+    public final int edgeCount;
+    public final int[] nodeCell;   // node -> cell index
+    private final int[] nodeOf;    // cell index -> node, -1 for corridor cells and walls
+
+    public final int[] adjStart;   // node -> first slot in adjNode/adjEdge (nodeCount + 1 entries)
+    public final int[] adjNode;
+    public final int[] adjEdge;
+
+    public final int[] edgeA;
+    public final int[] edgeB;
+    public final int[] edgeInterior; // Sum of weights strictly between the endpoints
+    private final int[] edgeStepStart; // edge -> first step (edgeCount + 1 entries)
+    private final long[] steps;        // 2-bit directions, 32 per long
+
+    // Grid access without holding the MazeMap, so the cached graph does not keep its map alive.
+    private final CellStore store;
+    private final int stride;
+    private final int[] offsets;
+
+    // Built once per map and kept with its other artifacts in MazeCache.
+    public static JunctionGraph forMap(MazeMap map) {
+        return MazeCache.shared().artifact(map, "junctions", JunctionGraph::new, JunctionGraph::bytes);
+    }
+
+    public JunctionGraph(MazeMap map) {
+        this.store = map.store;
+        this.stride = map.stride;
+        this.offsets = map.dirOffsets;
+        int size = map.size();
+
+        // --- Nodes ---
+        nodeOf = new int[size];
+        Arrays.fill(nodeOf, -1);
+        int n = 0;
+        int[] nodes = new int[1024];
+        for (int idx = 0; idx < size; idx++) {
+            if (!map.isOpen(idx)) continue;
+            int degree = 0;
+            for (int d = 0; d < 4; d++) if (map.isOpen(idx + offsets[d])) degree++;
+            boolean keep = (degree != 2 && degree != 0) || idx == map.startIdx || idx == map.goalIdx;
+            if (!keep) continue;
+            if (n == nodes.length) nodes = Arrays.copyOf(nodes, n * 2);
+            nodeOf[idx] = n;
+            nodes[n++] = idx;
+        }
+        nodeCount = n;
+        nodeCell = Arrays.copyOf(nodes, n);
+
+        // --- Edges: walk every corridor once, from its lower-numbered endpoint ---
+        int e = 0, stepCount = 0;
+        int[] eA = new int[1024], eB = new int[1024], eInterior = new int[1024], eStart = new int[1025];
+        long[] packed = new long[1024];
+        for (int a = 0; a < n; a++) {
+            int origin = nodeCell[a];
+            for (int d0 = 0; d0 < 4; d0++) {
+                int cur = origin + offsets[d0];
+                if (!map.isOpen(cur)) continue;
+                int first = stepCount;
+                int interior = 0;
+                int dir = d0;
+                packed = putStep(packed, stepCount++, dir);
+                while (nodeOf[cur] < 0) {
+                    interior += map.weight(cur);
+                    int back = dir ^ 1;
+                    int nd = -1;
+                    for (int d = 0; d < 4; d++) {
+                        if (d != back && map.isOpen(cur + offsets[d])) { nd = d; break; }
+                    }
+                    dir = nd;
+                    cur += offsets[dir];
+                    packed = putStep(packed, stepCount++, dir);
+                }
+                int b = nodeOf[cur];
+                if (b <= a) { stepCount = first; continue; } // Seen from the other end, or a self-loop
+                if (e == eA.length) {
+                    eA = Arrays.copyOf(eA, e * 2); eB = Arrays.copyOf(eB, e * 2);
+                    eInterior = Arrays.copyOf(eInterior, e * 2); eStart = Arrays.copyOf(eStart, e * 2 + 1);
+                }
+                eA[e] = a; eB[e] = b; eInterior[e] = interior; eStart[e] = first;
+                e++;
+            }
+        }
+        edgeCount = e;
+        edgeA = Arrays.copyOf(eA, e);
+        edgeB = Arrays.copyOf(eB, e);
+        edgeInterior = Arrays.copyOf(eInterior, e);
+        edgeStepStart = Arrays.copyOf(eStart, e + 1);
+        edgeStepStart[e] = stepCount;
+        steps = Arrays.copyOf(packed, (stepCount + 31) / 32);
+
+        // --- CSR adjacency ---
+        adjStart = new int[n + 1];
+        for (int i = 0; i < e; i++) { adjStart[edgeA[i] + 1]++; adjStart[edgeB[i] + 1]++; }
+        for (int i = 0; i < n; i++) adjStart[i + 1] += adjStart[i];
+        adjNode = new int[2 * e];
+        adjEdge = new int[2 * e];
+        int[] fill = Arrays.copyOf(adjStart, n);
+        for (int i = 0; i < e; i++) {
+            int s = fill[edgeA[i]]++; adjNode[s] = edgeB[i]; adjEdge[s] = i;
+            s = fill[edgeB[i]]++; adjNode[s] = edgeA[i]; adjEdge[s] = i;
+        }
+    }
+
+    public int nodeAt(int cell) { return nodeOf[cell]; }
+
+    public long bytes() {
+        return 4L * (nodeCell.length + nodeOf.length + adjStart.length + adjNode.length + adjEdge.length
+                + edgeA.length + edgeB.length + edgeInterior.length + edgeStepStart.length) + 8L * steps.length;
+    }
+
+    // Cost of travelling edge e into node 'to'.
+    public int cost(int e, int to) {
+        return edgeInterior[e] + store.weight(nodeCell[to]);
+    }
+
+    // Appends the cells of edge e travelled from node 'from', excluding 'from' and including the far node.
+    public void appendCells(int e, int from, List<Point> out) {
+        int first = edgeStepStart[e], last = edgeStepStart[e + 1];
+        if (from == edgeA[e]) {
+            int cur = nodeCell[from];
+            for (int i = first; i < last; i++) {
+                cur += offsets[step(i)];
+                out.add(new Point(cur / stride - 1, cur % stride - 1));
+            }
+        } else {
+            // Walk the recorded steps backwards with each direction flipped (Up<->Down, Left<->Right).
+            int cur = nodeCell[from];
+            for (int i = last - 1; i >= first; i--) {
+                cur += offsets[step(i) ^ 1];
+                out.add(new Point(cur / stride - 1, cur % stride - 1));
+            }
+        }
+    }
+
+    private int step(int i) {
+        return (int) (steps[i >>> 5] >>> ((i & 31) << 1)) & 3;
+    }
+
+    private static long[] putStep(long[] packed, int i, int dir) {
+        int word = i >>> 5;
+        if (word >= packed.length) packed = Arrays.copyOf(packed, packed.length * 2);
+        int shift = (i & 31) << 1;
+        packed[word] = (packed[word] & ~(3L << shift)) | ((long) dir << shift);
+        return packed;
+    }
+}
@@ -0,0 +1,160 @@
+package MazeSolverAlgo;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import Struct.BucketQueue;
+import Struct.CellStore;
+import Struct.IndexedMinHeap;
+import Struct.IntPriorityQueue;
+import Struct.MazeCache;
+import Struct.MazeMap;
+
+// ALT (A*, Landmarks, Triangle inequality) preprocessing for one MazeMap.
+// dist[v * k + i] holds the cost from landmark i to cell v (Integer.MAX_VALUE when unreachable),
+// interleaved so all landmarks of a cell share a cache line.
+// Moving into a cell costs that cell's weight, so costs are not symmetric; the cost back to the
+// landmark follows from the same table: d(v, L) = d(L, v) - w(v) + w(L).
+public class LandmarkTable {
+    public static final int DEFAULT_LANDMARKS = 4;
+
+    private static final int INF = Integer.MAX_VALUE;
+    private static final String ARTIFACT = "landmarks";
+
+    public final int k;
+    public final int[] landmarks; // Cell indices
+    private final int[] dist;
+    private final CellStore store; // Not the MazeMap: cached artifacts must not keep their map alive
+    private final int[] goalDist;  // d(L_i, goal)
+    private final int goalWeight;
+
+    // Returns the table for map, building it on first use; later calls (any thread) share it.
+    // Kept with the map's other artifacts in MazeCache.
+    public static LandmarkTable forMap(MazeMap map) {
+        return MazeCache.shared().artifact(map, ARTIFACT, m -> new LandmarkTable(m, DEFAULT_LANDMARKS), LandmarkTable::bytes);
+    }
+
+    // Returns the cached table without building one.
+    public static LandmarkTable peek(MazeMap map) {
+        return MazeCache.shared().peekArtifact(map, ARTIFACT);
+    }
+
+    public LandmarkTable(MazeMap map, int k) {
+        this.store = map.store;
+        this.landmarks = selectLandmarks(map, k);
+        this.k = landmarks.length;
+        this.dist = new int[map.size() * this.k];
+        Arrays.fill(dist, INF);
+
+        // One-to-all Dijkstra per landmark, each writing its own column of the interleaved table.
+        IntStream.range(0, this.k).parallel().forEach(i -> oneToAll(map, landmarks[i], i));
+
+        this.goalDist = new int[this.k];
+        for (int i = 0; i < this.k; i++) goalDist[i] = dist[map.goalIdx * this.k + i];
+        this.goalWeight = map.weight(map.goalIdx);
+    }
+
+    // Lower bound on the cost from v to the map's goal; consistent, so A* never reopens a cell.
+    public int heuristic(int v) {
+        int best = 0;
+        int base = v * k;
+        int wv = store.weight(v);
+        for (int i = 0; i < k; i++) {
+            int dv = dist[base + i], dt = goalDist[i];
+            if (dv == INF || dt == INF) continue;
+            int fwd = dt - dv;                       // d(L,t) - d(L,v)
+            int back = dv - dt - wv + goalWeight;    // d(v,L) - d(t,L)
+            if (fwd > best) best = fwd;
+            if (back > best) best = back;
+        }
+        return best;
+    }
+
+    // Lower bound on the cost from v to any target t.
+    public int lowerBound(int v, int t) {
+        int best = 0;
+        int wv = store.weight(v), wt = store.weight(t);
+        for (int i = 0; i < k; i++) {
+            int dv = dist[v * k + i], dt = dist[t * k + i];
+            if (dv == INF || dt == INF) continue;
+            int fwd = dt - dv;
+            int back = dv - dt - wv + wt;
+            if (fwd > best) best = fwd;
+            if (back > best) best = back;
+        }
+        return best;
+    }
+
+    public int distanceFrom(int landmark, int v) { return dist[v * k + landmark]; }
+
+    public long bytes() { return 4L * dist.length; }
+
+    // Farthest-point selection on hop distance: the first landmark is the open cell farthest from
+    // the start, each next one maximises its hop distance to the landmarks chosen so far.
+    // Uses plain BFS so selection stays cheap; the weighted tables are built afterwards in parallel.
+    private static int[] selectLandmarks(MazeMap map, int k) {
+        int n = map.size();
+        int[] offsets = map.dirOffsets;
+        int[] minHop = new int[n];
+        Arrays.fill(minHop, INF);
+        int[] hop = new int[n];
+        int[] queue = new int[n];
+        int[] chosen = new int[k];
+        int count = 0;
+
+        int source = map.startIdx;
+        boolean fromStart = true;
+        while (count < k) {
+            Arrays.fill(hop, -1);
+            int head = 0, tail = 0;
+            queue[tail++] = source;
+            hop[source] = 0;
+            while (head < tail) {
+                int cur = queue[head++];
+                for (int d = 0; d < 4; d++) {
+                    int next = cur + offsets[d];
+                    if (!map.isOpen(next) || hop[next] >= 0) continue;
+                    hop[next] = hop[cur] + 1;
+                    queue[tail++] = next;
+                }
+            }
+            int far = -1, farHop = -1;
+            for (int i = 0; i < tail; i++) {
+                int v = queue[i];
+                if (!fromStart && hop[v] < minHop[v]) minHop[v] = hop[v];
+                int score = fromStart ? hop[v] : minHop[v];
+                if (score > farHop) { farHop = score; far = v; }
+            }
+            if (far < 0 || farHop == 0) break; // Component exhausted
+            fromStart = false;
+            chosen[count++] = far;
+            source = far;
+        }
+        if (count == 0) chosen[count++] = map.startIdx;
+        return Arrays.copyOf(chosen, count);
+    }
+
+    private void oneToAll(MazeMap map, int source, int column) {
+        int[] offsets = map.dirOffsets;
+        int span = MyAlgorithm.bucketSpan(map, false);
+        IntPriorityQueue pq = (span > 0) ? new BucketQueue(map.size(), span) : new IndexedMinHeap(map.size());
+        // Relaxes straight into this landmark's column of the table (pre-filled with INF).
+        dist[source * k + column] = 0;
+        pq.pushOrDecrease(source, 0);
+        while (!pq.isEmpty()) {
+            int cur = pq.pop();
+            int g = dist[cur * k + column];
+            for (int dir = 0; dir < 4; dir++) {
+                int next = cur + offsets[dir];
+                int w = map.weight(next);
+                if (w == MazeMap.WALL) continue;
+                int ng = g + w;
+                int slot = next * k + column;
+                if (ng < dist[slot]) {
+                    dist[slot] = ng;
+                    pq.pushOrDecrease(next, ng);
+                }
+            }
+        }
+    }
+}
@@ -3,169 +3,375 @@ package MazeSolverAlgo;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.PriorityQueue;
 
+import Struct.IndexedMinHeap;
+import Struct.IntPriorityQueue;
 import Struct.MazeMap;
 import Struct.Point;
 
 public class MyAlgorithm {
 
-    private static class Node implements Comparable<Node> {
-        int r, c;
-        double gVirtual;
-        double realCost; 
-        double h;        
-        Node parent;
-
-        public Node(int r, int c, double gVirtual, double realCost, double h, Node parent) {
-            this.r = r; this.c = c;
-            this.gVirtual = gVirtual;
-            this.realCost = realCost;
-            this.h = h;
-            this.parent = parent;
-        }
+    // Priority queue used by the A* / Dijkstra searches.
+    // BUCKET is Dial's algorithm and needs small non-negative weights; maps that do not
+    // qualify (see bucketSpan) silently fall back to BINARY_HEAP.
+    public enum Engine { BINARY_HEAP, BUCKET }
 
-        public double getF() { return gVirtual + h; }
+    // Largest bucket ring we are willing to allocate before falling back to the heap.
+    public static final int MAX_BUCKET_SPAN = 1 << 12;
+
+    // Row/column step for each direction, matching MazeMap.dirOffsets (Up, Down, Left, Right).
+    private static final int[] DR = {-1, 1, 0, 0};
+    private static final int[] DC = {0, 0, -1, 1};
 
-        @Override
-        public int compareTo(Node other) {
-            return Double.compare(this.getF(), other.getF());
-        }
-    }
-    
     public static List<Point> getGreedyPath(MazeMap map) {
-        int rows = map.rows; int cols = map.cols;
-        boolean[][] visited = new boolean[rows][cols];
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Point start = map.start; Point goal = map.goal;
+        int[] offsets = map.dirOffsets; int[] around = new int[4];
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        IndexedMinHeap pq = ws.heap;
+        int startIdx = map.startIdx; int goalIdx = map.goalIdx;
+        int goalR = map.goal.r; int goalC = map.goal.c;
 
-        pq.add(new Node(start.r, start.c, 0, 0, manhattan(start, goal), null));
-        visited[start.r][start.c] = true;
+        ws.set(startIdx, 0, -1);
+        pq.pushOrDecrease(startIdx, manhattan(map, startIdx, goalIdx));
 
         while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            if (current.r == goal.r && current.c == goal.c) return backtrack(current);
-
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
-            for (int[] dir : dirs) {
-                int nr = current.r + dir[0];
-                int nc = current.c + dir[1];
-                if (!map.isValid(nr, nc) || visited[nr][nc]) continue;
-
-                int weight = map.getWeight(nr, nc);
-                visited[nr][nc] = true;
-                pq.add(new Node(nr, nc, 0, current.realCost + weight, manhattan(new Point(nr, nc), goal), current));
+            int current = pq.pop();
+            ws.expanded++;
+            if (current == goalIdx) return backtrack(map, ws, current);
+
+            int curR = map.rowOf(current); int curC = map.colOf(current);
+            map.neighborWeights(current, around);
+            for (int d = 0; d < 4; d++) {
+                int next = current + offsets[d];
+                int w = around[d];
+                if (w == MazeMap.WALL || ws.seen(next)) continue;
+
+                ws.set(next, ws.dist[current] + w, current);
+                int h = Math.abs(curR + DR[d] - goalR) + Math.abs(curC + DC[d] - goalC);
+                pq.pushOrDecrease(next, h);
             }
         }
         return new ArrayList<>();
     }
 
     public static double runPureAStar(MazeMap map) {
-        int rows = map.rows; int cols = map.cols;
-        double[][] bestDist = new double[rows][cols];
-        for(int i=0; i<rows; i++) for(int j=0; j<cols; j++) bestDist[i][j] = Double.MAX_VALUE;
+        return runPureAStar(map, Engine.BINARY_HEAP);
+    }
+
+    public static double runPureAStar(MazeMap map, Engine engine) {
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        return search(map, ws, true, engine, null, null);
+    }
+
+    public static List<Point> getPureAStarPath(MazeMap map) {
+        return getPureAStarPath(map, Engine.BINARY_HEAP);
+    }
+
+    public static List<Point> getPureAStarPath(MazeMap map, Engine engine) {
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        if (search(map, ws, true, engine, null, null) < 0) return new ArrayList<>();
+        return backtrack(map, ws, map.goalIdx);
+    }
+
+    public static List<Point> getDijkstraPath(MazeMap map) {
+        return getDijkstraPath(map, Engine.BINARY_HEAP);
+    }
+
+    public static List<Point> getDijkstraPath(MazeMap map, Engine engine) {
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        if (search(map, ws, false, engine, null, null) < 0) return new ArrayList<>();
+        return backtrack(map, ws, map.goalIdx);
+    }
+
+    // A* guided by the landmark (ALT) lower bound instead of Manhattan distance.
+    // The landmark table is built on the first call for a map and shared afterwards.
+    public static double runLandmarkAStar(MazeMap map) {
+        LandmarkTable alt = LandmarkTable.forMap(map);
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        return search(map, ws, true, Engine.BINARY_HEAP, alt, null);
+    }
+
+    public static List<Point> getLandmarkAStarPath(MazeMap map) {
+        LandmarkTable alt = LandmarkTable.forMap(map);
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        if (search(map, ws, true, Engine.BINARY_HEAP, alt, null) < 0) return new ArrayList<>();
+        return backtrack(map, ws, map.goalIdx);
+    }
+
+    // A* / Dijkstra that never enter cells removed by dead-end filling. Such cells lie on no
+    // simple start-goal path, so the cost is unchanged while corridors off the route are skipped.
+    public static double runPrunedAStar(MazeMap map) {
+        DeadEndMap dead = DeadEndMap.forMap(map);
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        return search(map, ws, true, Engine.BINARY_HEAP, null, dead);
+    }
+
+    public static List<Point> getPrunedAStarPath(MazeMap map) {
+        DeadEndMap dead = DeadEndMap.forMap(map);
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        if (search(map, ws, true, Engine.BINARY_HEAP, null, dead) < 0) return new ArrayList<>();
+        return backtrack(map, ws, map.goalIdx);
+    }
+
+    public static List<Point> getPrunedDijkstraPath(MazeMap map) {
+        DeadEndMap dead = DeadEndMap.forMap(map);
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        if (search(map, ws, false, Engine.BINARY_HEAP, null, dead) < 0) return new ArrayList<>();
+        return backtrack(map, ws, map.goalIdx);
+    }
+
+    // Bucket ring size needed for this map, or -1 when Dial's algorithm does not apply.
+    // One relaxation raises the key by at most maxWeight (+1 for the Manhattan term).
+    public static int bucketSpan(MazeMap map, boolean useHeuristic) {
+        if (map.minWeight() < 0) return -1;
+        int span = map.maxWeight() + (useHeuristic ? 2 : 1);
+        return span <= MAX_BUCKET_SPAN ? span : -1;
+    }
 
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Point start = map.start; Point goal = map.goal;
+    // BINARY_HEAP keeps duplicate entries rather than decreasing keys, so ties pop in the order
+    // the original PriorityQueue<Node> searches used and the public paths stay the same.
+    private static IntPriorityQueue queueFor(MazeMap map, SearchWorkspace ws, boolean useHeuristic, Engine engine) {
+        if (engine == Engine.BUCKET) {
+            int span = bucketSpan(map, useHeuristic);
+            if (span > 0) return ws.buckets(map.size(), span);
+        }
+        return ws.lazy;
+    }
 
-        pq.add(new Node(start.r, start.c, 0, 0, manhattan(start, goal), null));
-        bestDist[start.r][start.c] = 0;
+    // A* (or Dijkstra when useHeuristic is false) with decrease-key on the chosen queue.
+    // The heuristic is Manhattan distance, or the landmark bound when alt is given.
+    // Cells marked in dead (if given) are treated as walls.
+    // Returns the real cost to the goal, or -1 when it is unreachable.
+    private static int search(MazeMap map, SearchWorkspace ws, boolean useHeuristic, Engine engine, LandmarkTable alt, DeadEndMap dead) {
+        int[] offsets = map.dirOffsets; int[] around = new int[4];
+        IntPriorityQueue pq = queueFor(map, ws, useHeuristic, engine);
+        int startIdx = map.startIdx; int goalIdx = map.goalIdx;
+        int goalR = map.goal.r; int goalC = map.goal.c;
+
+        ws.set(startIdx, 0, -1);
+        int startH = !useHeuristic ? 0 : (alt != null ? alt.heuristic(startIdx) : manhattan(map, startIdx, goalIdx));
+        pq.pushOrDecrease(startIdx, startH);
 
         while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            if (current.r == goal.r && current.c == goal.c) return current.realCost;
-            if (current.realCost > bestDist[current.r][current.c]) continue;
-
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
-            for (int[] dir : dirs) {
-                int nr = current.r + dir[0];
-                int nc = current.c + dir[1];
-                if (!map.isValid(nr, nc)) continue;
-                
-                double newCost = current.realCost + map.getWeight(nr, nc);
-                if (newCost < bestDist[nr][nc]) {
-                    bestDist[nr][nc] = newCost;
-                    pq.add(new Node(nr, nc, newCost, newCost, manhattan(new Point(nr, nc), goal), null));
+            int current = pq.pop();
+            ws.expanded++;
+            int g = ws.dist[current];
+            if (current == goalIdx) return g;
+
+            int curR = map.rowOf(current); int curC = map.colOf(current);
+            map.neighborWeights(current, around);
+            for (int d = 0; d < 4; d++) {
+                int next = current + offsets[d];
+                int w = around[d];
+                if (w == MazeMap.WALL || (dead != null && dead.isDeadEnd(next))) continue;
+                int newCost = g + w;
+                if (newCost < ws.distOf(next)) {
+                    ws.set(next, newCost, current);
+                    int h = 0;
+                    if (alt != null) h = alt.heuristic(next);
+                    else if (useHeuristic) h = Math.abs(curR + DR[d] - goalR) + Math.abs(curC + DC[d] - goalC);
+                    pq.pushOrDecrease(next, newCost + h);
                 }
             }
         }
         return -1;
     }
-    
-    public static List<Point> getPureAStarPath(MazeMap map) {
-        int rows = map.rows; int cols = map.cols;
-        double[][] bestDist = new double[rows][cols];
-        for(int i=0; i<rows; i++) for(int j=0; j<cols; j++) bestDist[i][j] = Double.MAX_VALUE;
 
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Point start = map.start; Point goal = map.goal;
+    // --- Bidirectional searches ---
+
+    public static double runBidirectionalDijkstra(MazeMap map) {
+        return bidirectional(map, SearchWorkspace.acquire(map.size()), false);
+    }
+
+    public static List<Point> getBidirectionalDijkstraPath(MazeMap map) {
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        if (bidirectional(map, ws, false) < 0) return new ArrayList<>();
+        return joinPaths(map, ws);
+    }
+
+    public static double runBidirectionalAStar(MazeMap map) {
+        return bidirectional(map, SearchWorkspace.acquire(map.size()), true);
+    }
+
+    public static List<Point> getBidirectionalAStarPath(MazeMap map) {
+        SearchWorkspace ws = SearchWorkspace.acquire(map.size());
+        if (bidirectional(map, ws, true) < 0) return new ArrayList<>();
+        return joinPaths(map, ws);
+    }
+
+    // --- Searches on the corridor-contracted junction graph ---
+
+    public static double runJunctionDijkstra(MazeMap map) {
+        JunctionGraph graph = JunctionGraph.forMap(map);
+        return junctionSearch(map, graph, SearchWorkspace.acquire(graph.nodeCount), false);
+    }
+
+    public static List<Point> getJunctionDijkstraPath(MazeMap map) {
+        JunctionGraph graph = JunctionGraph.forMap(map);
+        SearchWorkspace ws = SearchWorkspace.acquire(graph.nodeCount);
+        if (junctionSearch(map, graph, ws, false) < 0) return new ArrayList<>();
+        return expandJunctionPath(map, graph, ws);
+    }
+
+    public static double runJunctionAStar(MazeMap map) {
+        JunctionGraph graph = JunctionGraph.forMap(map);
+        return junctionSearch(map, graph, SearchWorkspace.acquire(graph.nodeCount), true);
+    }
+
+    public static List<Point> getJunctionAStarPath(MazeMap map) {
+        JunctionGraph graph = JunctionGraph.forMap(map);
+        SearchWorkspace ws = SearchWorkspace.acquire(graph.nodeCount);
+        if (junctionSearch(map, graph, ws, true) < 0) return new ArrayList<>();
+        return expandJunctionPath(map, graph, ws);
+    }
 
-        pq.add(new Node(start.r, start.c, 0, 0, manhattan(start, goal), null));
-        bestDist[start.r][start.c] = 0;
+    // Same as search() but over graph nodes; ws.parent holds the edge used to reach each node.
+    // The A* variant reuses the landmark bound when a table already exists for the map, else Manhattan.
+    private static int junctionSearch(MazeMap map, JunctionGraph graph, SearchWorkspace ws, boolean useHeuristic) {
+        IndexedMinHeap pq = ws.heap;
+        LandmarkTable alt = useHeuristic ? LandmarkTable.peek(map) : null;
+        int source = graph.nodeAt(map.startIdx);
+        int target = graph.nodeAt(map.goalIdx);
+        if (source < 0 || target < 0) return -1; // Start or goal is a wall
+
+        ws.set(source, 0, -1);
+        pq.pushOrDecrease(source, nodeHeuristic(map, graph, source, useHeuristic, alt));
 
         while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            if (current.r == goal.r && current.c == goal.c) return backtrack(current);
-            if (current.realCost > bestDist[current.r][current.c]) continue;
-
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
-            for (int[] dir : dirs) {
-                int nr = current.r + dir[0];
-                int nc = current.c + dir[1];
-
-                if (!map.isValid(nr, nc)) continue;
-                double newCost = current.realCost + map.getWeight(nr, nc);
-                if (newCost < bestDist[nr][nc]) {
-                    bestDist[nr][nc] = newCost;
-                    pq.add(new Node(nr, nc, newCost, newCost, manhattan(new Point(nr, nc), goal), current));
+            int current = pq.pop();
+            ws.expanded++;
+            int g = ws.dist[current];
+            if (current == target) return g;
+
+            for (int slot = graph.adjStart[current]; slot < graph.adjStart[current + 1]; slot++) {
+                int next = graph.adjNode[slot];
+                int edge = graph.adjEdge[slot];
+                int newCost = g + graph.cost(edge, next);
+                if (newCost < ws.distOf(next)) {
+                    ws.set(next, newCost, edge);
+                    pq.pushOrDecrease(next, newCost + nodeHeuristic(map, graph, next, useHeuristic, alt));
                 }
             }
         }
-        return new ArrayList<>();
+        return -1;
     }
 
-    private static List<Point> backtrack(Node endNode) {
+    private static int nodeHeuristic(MazeMap map, JunctionGraph graph, int node, boolean useHeuristic, LandmarkTable alt) {
+        if (!useHeuristic) return 0;
+        int cell = graph.nodeCell[node];
+        return alt != null ? alt.heuristic(cell) : manhattan(map, cell, map.goalIdx);
+    }
+
+    private static List<Point> expandJunctionPath(MazeMap map, JunctionGraph graph, SearchWorkspace ws) {
+        int source = graph.nodeAt(map.startIdx);
+        int target = graph.nodeAt(map.goalIdx);
+        // Collect the edges goal -> start, then replay them forwards.
+        int hops = 0;
+        for (int node = target; node != source; hops++) {
+            int edge = ws.parent[node];
+            node = graph.edgeA[edge] == node ? graph.edgeB[edge] : graph.edgeA[edge];
+        }
+        int[] edges = new int[hops];
+        int node = target;
+        for (int i = hops - 1; i >= 0; i--) {
+            int edge = ws.parent[node];
+            edges[i] = edge;
+            node = graph.edgeA[edge] == node ? graph.edgeB[edge] : graph.edgeA[edge];
+        }
         List<Point> path = new ArrayList<>();
-        Node curr = endNode;
-        while (curr != null) { path.add(new Point(curr.r, curr.c)); curr = curr.parent; }
-        Collections.reverse(path);
+        path.add(map.toPoint(map.startIdx));
+        for (int edge : edges) {
+            graph.appendCells(edge, node, path);
+            node = graph.edgeA[edge] == node ? graph.edgeB[edge] : graph.edgeA[edge];
+        }
         return path;
     }
 
-    public static List<Point> getDijkstraPath(MazeMap map) {
-        int rows = map.rows; int cols = map.cols;
-        double[][] bestDist = new double[rows][cols];
-        for(int i=0; i<rows; i++) for(int j=0; j<cols; j++) bestDist[i][j] = Double.MAX_VALUE;
+    // Number of cells popped by the last search on the calling thread (both sides for bidirectional).
+    public static int getLastExpandedCount() {
+        SearchWorkspace ws = SearchWorkspace.current();
+        return ws.expanded + (ws.reverse != null ? ws.reverse.expanded : 0);
+    }
 
-        PriorityQueue<Node> pq = new PriorityQueue<>();
-        Point start = map.start; Point goal = map.goal;
+    // Forward search from start and backward search from goal, always expanding the smaller frontier.
+    // Forward dist(v) includes the weight of v; backward dist(v) is the cost of the cells after v up
+    // to the goal, so a meeting cell's total is simply their sum.
+    // A* uses the average potential p(v) = (hF(v) - hB(v)) / 2 on both sides (Ikeda et al.), which keeps
+    // the two searches consistent with each other so the Dijkstra stopping rule stays valid:
+    // stop once minKeyF + minKeyB >= best. Keys are doubled to stay in integers. hF/hB are Manhattan
+    // distance minus the number of zero-weight cells (normally just S and G); the only edges whose
+    // reduced cost can go negative enter a zero-weight cell, so the rule is widened by that count.
+    // Returns the real cost, or -1 when the goal is unreachable; the meeting cell is left in ws.meet.
+    private static int bidirectional(MazeMap map, SearchWorkspace fw, boolean useHeuristic) {
+        SearchWorkspace bw = fw.reverse(map.size());
+        int[] offsets = map.dirOffsets; int[] around = new int[4];
+        int startIdx = map.startIdx; int goalIdx = map.goalIdx;
+        int startR = map.start.r, startC = map.start.c;
+        int goalR = map.goal.r, goalC = map.goal.c;
+        int slack = useHeuristic ? map.zeroWeightCells() : 0;
 
-        pq.add(new Node(start.r, start.c, 0, 0,0, null));
-        bestDist[start.r][start.c] = 0;
+        fw.set(startIdx, 0, -1);
+        bw.set(goalIdx, 0, -1);
+        int p0 = useHeuristic ? Math.max(0, manhattan(map, startIdx, goalIdx) - slack) : 0;
+        fw.heap.pushOrDecrease(startIdx, p0);
+        bw.heap.pushOrDecrease(goalIdx, p0);
 
-        while (!pq.isEmpty()) {
-            Node current = pq.poll();
-            if (current.r == goal.r && current.c == goal.c) return backtrack(current);
-            if (current.realCost > bestDist[current.r][current.c]) continue;
-
-            int[][] dirs = {{-1,0}, {1,0}, {0,-1}, {0,1}};
-            for (int[] dir : dirs) {
-                int nr = current.r + dir[0];
-                int nc = current.c + dir[1];
-
-                if (!map.isValid(nr, nc)) continue;
-                double newCost = current.realCost + map.getWeight(nr, nc);
-                if (newCost < bestDist[nr][nc]) {
-                    bestDist[nr][nc] = newCost;
-                    pq.add(new Node(nr, nc, newCost, newCost, 0, current));
+        int best = Integer.MAX_VALUE;
+        if (startIdx == goalIdx) { best = 0; fw.meet = startIdx; }
+
+        while (!fw.heap.isEmpty() && !bw.heap.isEmpty()) {
+            if (best != Integer.MAX_VALUE) {
+                long kf = fw.heap.peekKey(), kb = bw.heap.peekKey();
+                if (kf + kb - 2L * slack >= 2L * best) break;
+            }
+            boolean forward = fw.heap.size() <= bw.heap.size();
+            SearchWorkspace side = forward ? fw : bw;
+            SearchWorkspace other = forward ? bw : fw;
+
+            int current = side.heap.pop();
+            side.expanded++;
+            int g = side.dist[current];
+            int curR = map.rowOf(current); int curC = map.colOf(current);
+            int curW = map.weight(current);
+            map.neighborWeights(current, around);
+            for (int d = 0; d < 4; d++) {
+                int next = current + offsets[d];
+                int w = around[d];
+                if (w == MazeMap.WALL) continue;
+                int newCost = g + (forward ? w : curW);
+                if (newCost >= side.distOf(next)) continue;
+                side.set(next, newCost, current);
+                int potential = 0;
+                if (useHeuristic) {
+                    int nr = curR + DR[d], nc = curC + DC[d];
+                    int hF = Math.max(0, Math.abs(nr - goalR) + Math.abs(nc - goalC) - slack);
+                    int hB = Math.max(0, Math.abs(nr - startR) + Math.abs(nc - startC) - slack);
+                    potential = forward ? hF - hB : hB - hF;
+                }
+                side.heap.pushOrDecrease(next, 2 * newCost + potential);
+                if (other.seen(next) && newCost + other.dist[next] < best) {
+                    best = newCost + other.dist[next];
+                    fw.meet = next;
                 }
             }
         }
-        return new ArrayList<>();
+        return best == Integer.MAX_VALUE ? -1 : best;
+    }
+
+    private static List<Point> joinPaths(MazeMap map, SearchWorkspace fw) {
+        List<Point> path = backtrack(map, fw, fw.meet);
+        for (int curr = fw.reverse.parent[fw.meet]; curr != -1; curr = fw.reverse.parent[curr]) path.add(map.toPoint(curr));
+        return path;
+    }
+
+    private static List<Point> backtrack(MazeMap map, SearchWorkspace ws, int endIdx) {
+        List<Point> path = new ArrayList<>();
+        for (int curr = endIdx; curr != -1; curr = ws.parent[curr]) path.add(map.toPoint(curr));
+        Collections.reverse(path);
+        return path;
     }
-    
-    private static double manhattan(Point a, Point b) {
-        return Math.abs(a.r - b.r) + Math.abs(a.c - b.c);
+
+    private static int manhattan(MazeMap map, int a, int b) {
+        return Math.abs(map.rowOf(a) - map.rowOf(b)) + Math.abs(map.colOf(a) - map.colOf(b));
     }
 
-}
\ No newline at end of file
+}
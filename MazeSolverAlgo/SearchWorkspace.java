@@ -0,0 +1,79 @@
+package MazeSolverAlgo;
+
+import java.util.Arrays;
+
+import Struct.BucketQueue;
+import Struct.IndexedMinHeap;
+import Struct.LazyMinHeap;
+
+// Per-thread scratch buffers for the grid searches in MyAlgorithm.
+// dist/parent entries are only meaningful when stamp[id] == epoch, so starting a
+// new query is a single increment instead of refilling arrays of map.size().
+class SearchWorkspace {
+    private static final ThreadLocal<SearchWorkspace> LOCAL = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    IndexedMinHeap heap = new IndexedMinHeap(0);
+    LazyMinHeap lazy = new LazyMinHeap(0); // Grid A*/Dijkstra, see MyAlgorithm.queueFor
+    BucketQueue buckets; // Created on first bucket-engine query
+    int[] dist = new int[0];
+    int[] parent = new int[0];
+    int[] stamp = new int[0];
+    int epoch = 0;
+    int expanded;           // Cells popped by the last query
+    int meet = -1;          // Meeting cell of the last bidirectional query
+    SearchWorkspace reverse; // Backward side of bidirectional searches
+
+    static SearchWorkspace current() { return LOCAL.get(); }
+
+    static SearchWorkspace acquire(int size) {
+        SearchWorkspace ws = LOCAL.get();
+        ws.begin(size);
+        return ws;
+    }
+
+    SearchWorkspace reverse(int size) {
+        if (reverse == null) reverse = new SearchWorkspace();
+        reverse.begin(size);
+        return reverse;
+    }
+
+    void begin(int size) {
+        expanded = 0;
+        meet = -1;
+        if (reverse != null) reverse.expanded = 0;
+        if (stamp.length < size) {
+            dist = new int[size];
+            parent = new int[size];
+            stamp = new int[size];
+            epoch = 0;
+        }
+        heap.ensureCapacity(size);
+        heap.clear();
+        lazy.ensureCapacity(size);
+        lazy.clear();
+        if (buckets != null) {
+            buckets.ensureCapacity(size);
+            buckets.clear();
+        }
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+
+    BucketQueue buckets(int size, int span) {
+        if (buckets == null) buckets = new BucketQueue(size, span);
+        buckets.ensureSpan(span);
+        return buckets;
+    }
+
+    boolean seen(int id) { return stamp[id] == epoch; }
+
+    int distOf(int id) { return stamp[id] == epoch ? dist[id] : Integer.MAX_VALUE; }
+
+    void set(int id, int d, int from) {
+        stamp[id] = epoch;
+        dist[id] = d;
+        parent[id] = from;
+    }
+}
@@ -0,0 +1,106 @@
+package Struct;
+
+import java.util.Arrays;
+
+// Dial's bucket queue: a circular array of span buckets holding doubly linked lists of ids.
+// Valid when every pushed key lies in [current min, current min + span), which holds for
+// Dijkstra with span = maxWeight + 1 and for A* with Manhattan distance at span = maxWeight + 2.
+// Push, decrease-key and pop are O(1) amortised; keys that arrive below the current min
+// (possible with a slightly inconsistent heuristic) are clamped into the current bucket.
+public class BucketQueue implements IntPriorityQueue {
+    private int[] head;  // bucket -> first id, -1 when empty
+    private int[] next;  // id -> next id in its bucket
+    private int[] prev;  // id -> previous id in its bucket, -1 when first
+    private int[] keyOf; // id -> key, -1 when not in the queue
+    private int cursor = -1; // smallest key that can still be in the queue, -1 until the first push
+    private int size;
+
+    public BucketQueue(int capacity, int span) {
+        head = new int[Math.max(span, 1)];
+        Arrays.fill(head, -1);
+        next = new int[capacity];
+        prev = new int[capacity];
+        keyOf = new int[capacity];
+        Arrays.fill(keyOf, -1);
+    }
+
+    public int span() { return head.length; }
+
+    // Resizes the bucket ring; the queue must be empty.
+    public void ensureSpan(int span) {
+        if (span <= head.length) return;
+        head = new int[span];
+        Arrays.fill(head, -1);
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity <= keyOf.length) return;
+        clear();
+        next = new int[capacity];
+        prev = new int[capacity];
+        keyOf = new int[capacity];
+        Arrays.fill(keyOf, -1);
+    }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            for (int b = 0; b < head.length; b++) {
+                for (int id = head[b]; id != -1; id = next[id]) keyOf[id] = -1;
+                head[b] = -1;
+            }
+        }
+        size = 0;
+        cursor = -1;
+    }
+
+    @Override
+    public boolean pushOrDecrease(int id, int key) {
+        if (cursor < 0) cursor = key;
+        if (key < cursor) key = cursor;
+        int old = keyOf[id];
+        if (old >= 0) {
+            if (key >= old) return false;
+            unlink(id, old);
+        } else {
+            size++;
+        }
+        keyOf[id] = key;
+        int b = key % head.length;
+        int first = head[b];
+        next[id] = first;
+        prev[id] = -1;
+        if (first != -1) prev[first] = id;
+        head[b] = id;
+        return true;
+    }
+
+    @Override
+    public int pop() {
+        int n = head.length;
+        int b = cursor % n;
+        while (head[b] == -1) {
+            cursor++;
+            if (++b == n) b = 0;
+        }
+        int id = head[b];
+        unlink(id, keyOf[id]);
+        keyOf[id] = -1;
+        size--;
+        return id;
+    }
+
+    private void unlink(int id, int key) {
+        int p = prev[id], q = next[id];
+        if (p != -1) next[p] = q;
+        else head[key % head.length] = q;
+        if (q != -1) prev[q] = p;
+    }
+}
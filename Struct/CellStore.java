@@ -0,0 +1,26 @@
+package Struct;
+
+// Backing storage for the padded MazeMap grid, addressed by padded cell index.
+// Implemented by IntCellStore (one int per cell), PackedCellStore (wall bit + 4-bit weight),
+// TiledCellStore (off-heap tiles paged from a file) and MappedCellStore (read-only .mzb view).
+// Cells start open with weight 0; loaders write every cell once through putRange.
+public interface CellStore {
+    int size();
+
+    // Weight of the cell, or MazeMap.WALL.
+    int weight(int idx);
+
+    boolean isWall(int idx);
+
+    // Weights of idx + offsets[d] for the four directions, written to out[0..3].
+    default void neighborWeights(int idx, int[] offsets, int[] out) {
+        for (int d = 0; d < 4; d++) out[d] = weight(idx + offsets[d]);
+    }
+
+    // Writes values[0..count) to cells idx..idx+count-1. Disjoint ranges may be written from
+    // different threads at the same time; each cell is written at most once.
+    void putRange(int idx, int[] values, int count);
+
+    // Approximate heap footprint of the backing arrays.
+    long bytes();
+}
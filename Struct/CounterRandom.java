@@ -0,0 +1,28 @@
+package Struct;
+
+// Counter-based random numbers: draw n of stream 'key' is a pure function mix(key, n), so any
+// stream can be replayed from its key alone and streams never share state between threads.
+// The mixer is SplitMix64's finaliser; key() derives a stream key from a run seed and any
+// 64-bit identity (e.g. a genome content hash), split() derives independent child streams.
+public final class CounterRandom {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private CounterRandom() { }
+
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long key(long seed, long id) { return mix(seed * GOLDEN + mix(id)); }
+
+    public static long split(long key, long stream) { return mix(key ^ mix(stream + GOLDEN)); }
+
+    public static long nextLong(long key, long counter) { return mix(key + counter * GOLDEN); }
+
+    // Uniform in [0, 1) with 53 random bits, like java.util.Random.nextDouble().
+    public static double nextDouble(long key, long counter) {
+        return (nextLong(key, counter) >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,89 @@
+package Struct;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+// Dead ends learned while decoding, shared by all decoders of one GA run.
+// One bit per cell in the dense r * cols + c layout, set with a CAS loop so parallel decoders
+// never lose each other's marks and every mark is visible to the other workers.
+// Bits are only ever set, so a reader can never see a cell go from dead back to open.
+// Decoders that must not see marks arrive mid-decode read published() instead: the bits as of
+// the last publish(), which the GA calls at generation boundaries. When generations overlap, a
+// thread can pin() the snapshot of the generation it is decoding for, and published() returns
+// that one on the thread until it is unpinned.
+public class DeadEndKnowledge {
+    public final int rows, cols;
+    private final AtomicLongArray bits;
+    private volatile Snapshot published;
+    private final ThreadLocal<Snapshot> pinned = new ThreadLocal<>();
+
+    // Frozen copy of the marks; never changes once taken.
+    public static final class Snapshot {
+        private final long[] words;
+
+        Snapshot(long[] words) { this.words = words; }
+
+        public boolean isDeadEnd(int dense) { return (words[dense >>> 6] >>> dense & 1) != 0; }
+    }
+
+    public DeadEndKnowledge(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.bits = new AtomicLongArray(((int) ((long) rows * cols) + 63) >>> 6);
+        this.published = new Snapshot(new long[bits.length()]);
+    }
+
+    public void publish() { published = new Snapshot(snapshot()); }
+
+    public Snapshot published() {
+        Snapshot own = pinned.get();
+        return own != null ? own : published;
+    }
+
+    // null unpins.
+    public void pin(Snapshot snapshot) {
+        if (snapshot == null) pinned.remove();
+        else pinned.set(snapshot);
+    }
+
+    public boolean isDeadEnd(int r, int c) { return isDeadEnd(r * cols + c); }
+
+    public boolean isDeadEnd(int dense) { return (bits.get(dense >>> 6) >>> dense & 1) != 0; }
+
+    public boolean markDeadEnd(int r, int c) { return markDeadEnd(r * cols + c); }
+
+    // Returns true if this call set the bit, false if it was already set.
+    public boolean markDeadEnd(int dense) {
+        int w = dense >>> 6;
+        long mask = 1L << dense;
+        long old = bits.get(w);
+        while ((old & mask) == 0) {
+            long seen = bits.compareAndExchange(w, old, old | mask);
+            if (seen == old) return true;
+            old = seen;
+        }
+        return false;
+    }
+
+    public int count() {
+        int n = 0;
+        for (int w = 0; w < bits.length(); w++) n += Long.bitCount(bits.get(w));
+        return n;
+    }
+
+    // Copy of the words at this moment; each word is read atomically, the whole is not.
+    public long[] snapshot() {
+        long[] out = new long[bits.length()];
+        for (int w = 0; w < out.length; w++) out[w] = bits.get(w);
+        return out;
+    }
+
+    // Calls action with the dense index of every marked cell, in increasing order.
+    public void forEach(IntConsumer action) {
+        for (int w = 0; w < bits.length(); w++) {
+            for (long word = bits.get(w); word != 0; word &= word - 1) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package Struct;
+
+import java.util.Arrays;
+
+// Per-thread scratch buffers for the GA decoders, reused for every chromosome the thread decodes.
+// Per-cell entries (visited flag, best cost, parent) count only when stamp[idx] == epoch, so
+// starting a decode is one increment instead of allocating and filling arrays of map.size().
+//
+// The queue holds (cell, f, g, real cost) entries with lazy deletion and orders them exactly like
+// java.util.PriorityQueue would (same sift rules), so decoders keep their previous tie-breaking.
+public class DecodeWorkspace {
+    private static final ThreadLocal<DecodeWorkspace> LOCAL = ThreadLocal.withInitial(DecodeWorkspace::new);
+
+    public int[] stack = new int[0]; // Path stack for the DFS-style decoders
+    public final int[] moves = new int[4]; // Candidate directions of one step
+    public final double[] weights = new double[4];
+    private int[] stamp = new int[0];
+    private double[] best = new double[0];
+    private int[] parent = new int[0];
+    private int epoch;
+    public int expanded; // Queue pops in the current decode
+    public boolean truncated; // The current decode ran out of its node/step budget
+
+    private int[] heapCell = new int[16];
+    private double[] heapF = new double[16];
+    private double[] heapG = new double[16];
+    private double[] heapReal = new double[16];
+    private int heapSize;
+    public double poppedG, poppedReal; // Set by pop()
+
+    // This thread's workspace as the last decode left it, without starting a new one.
+    public static DecodeWorkspace current() { return LOCAL.get(); }
+
+    public static DecodeWorkspace acquire(int size) {
+        DecodeWorkspace ws = LOCAL.get();
+        ws.begin(size);
+        return ws;
+    }
+
+    private void begin(int size) {
+        if (stamp.length < size) {
+            stack = new int[size];
+            stamp = new int[size];
+            best = new double[size];
+            parent = new int[size];
+            epoch = 0;
+        }
+        heapSize = 0;
+        expanded = 0;
+        truncated = false;
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+
+    // --- Per-cell state ---
+
+    public boolean visited(int idx) { return stamp[idx] == epoch; }
+
+    public void visit(int idx) { stamp[idx] = epoch; }
+
+    public double bestOf(int idx) { return stamp[idx] == epoch ? best[idx] : Double.MAX_VALUE; }
+
+    public void setBest(int idx, double cost, int from) {
+        stamp[idx] = epoch;
+        best[idx] = cost;
+        parent[idx] = from;
+    }
+
+    public int parentOf(int idx) { return parent[idx]; }
+
+    // --- Queue ---
+
+    public boolean isEmpty() { return heapSize == 0; }
+
+    public int queueSize() { return heapSize; }
+
+    // Entries in heap order, for scans over everything still queued.
+    public int queuedCell(int i) { return heapCell[i]; }
+
+    public double queuedReal(int i) { return heapReal[i]; }
+
+    public void push(int cell, double f, double g, double real) {
+        if (heapSize == heapCell.length) {
+            int n = heapSize * 2;
+            heapCell = Arrays.copyOf(heapCell, n);
+            heapF = Arrays.copyOf(heapF, n);
+            heapG = Arrays.copyOf(heapG, n);
+            heapReal = Arrays.copyOf(heapReal, n);
+        }
+        int k = heapSize++;
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (f >= heapF[p]) break;
+            move(p, k);
+            k = p;
+        }
+        put(k, cell, f, g, real);
+    }
+
+    // Removes the entry with the smallest f and returns its cell; g and real cost go to poppedG/poppedReal.
+    public int pop() {
+        int cell = heapCell[0];
+        poppedG = heapG[0];
+        poppedReal = heapReal[0];
+        int n = --heapSize;
+        if (n > 0) {
+            int xCell = heapCell[n];
+            double xF = heapF[n], xG = heapG[n], xReal = heapReal[n];
+            int k = 0, half = n >>> 1;
+            while (k < half) {
+                int child = 2 * k + 1, right = child + 1;
+                if (right < n && heapF[child] > heapF[right]) child = right;
+                if (xF <= heapF[child]) break;
+                move(child, k);
+                k = child;
+            }
+            put(k, xCell, xF, xG, xReal);
+        }
+        return cell;
+    }
+
+    private void move(int from, int to) {
+        heapCell[to] = heapCell[from];
+        heapF[to] = heapF[from];
+        heapG[to] = heapG[from];
+        heapReal[to] = heapReal[from];
+    }
+
+    private void put(int k, int cell, double f, double g, double real) {
+        heapCell[k] = cell;
+        heapF[k] = f;
+        heapG[k] = g;
+        heapReal[k] = real;
+    }
+}
@@ -0,0 +1,116 @@
+package Struct;
+
+import java.util.Arrays;
+
+// Binary min-heap over int ids (cell indices) with int keys and decrease-key.
+// All storage is primitive arrays that are reused between queries: clear() only
+// touches the ids still in the heap, so resetting costs O(size) rather than O(capacity).
+public class IndexedMinHeap implements IntPriorityQueue {
+    private int[] heap;  // heap slot -> id
+    private int[] keys;  // heap slot -> key (kept next to the id for cache locality)
+    private int[] pos;   // id -> heap slot, -1 when not in the heap
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[Math.max(capacity, 16)];
+        keys = new int[heap.length];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity <= pos.length) return;
+        clear();
+        heap = new int[capacity];
+        keys = new int[capacity];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public int capacity() { return pos.length; }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+
+    @Override
+    public int size() { return size; }
+
+    public boolean contains(int id) { return pos[id] >= 0; }
+
+    public int peekKey() { return keys[0]; }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) pos[heap[i]] = -1;
+        size = 0;
+    }
+
+    // Inserts id, or lowers its key if it is already queued with a larger one.
+    // Returns false when id is queued with a key <= the given one.
+    @Override
+    public boolean pushOrDecrease(int id, int key) {
+        int slot = pos[id];
+        if (slot < 0) {
+            slot = size++;
+            heap[slot] = id;
+            keys[slot] = key;
+            pos[id] = slot;
+            siftUp(slot);
+            return true;
+        }
+        if (key >= keys[slot]) return false;
+        keys[slot] = key;
+        siftUp(slot);
+        return true;
+    }
+
+    @Override
+    public int pop() {
+        int top = heap[0];
+        pos[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            keys[0] = keys[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int slot) {
+        int id = heap[slot];
+        int key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) break;
+            heap[slot] = heap[parent];
+            keys[slot] = keys[parent];
+            pos[heap[slot]] = slot;
+            slot = parent;
+        }
+        heap[slot] = id;
+        keys[slot] = key;
+        pos[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int id = heap[slot];
+        int key = keys[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child]) child = right;
+            if (key <= keys[child]) break;
+            heap[slot] = heap[child];
+            keys[slot] = keys[child];
+            pos[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = id;
+        keys[slot] = key;
+        pos[id] = slot;
+    }
+}
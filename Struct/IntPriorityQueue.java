@@ -0,0 +1,20 @@
+package Struct;
+
+// Min-priority queue over int ids (cell indices) with int keys and decrease-key.
+// Implemented by IndexedMinHeap (any keys), LazyMinHeap (PriorityQueue tie order) and
+// BucketQueue (small bounded key steps).
+public interface IntPriorityQueue {
+    void ensureCapacity(int capacity);
+
+    boolean isEmpty();
+
+    int size();
+
+    void clear();
+
+    // Inserts id, or lowers its key if it is already queued with a larger one.
+    boolean pushOrDecrease(int id, int key);
+
+    // Removes and returns an id with the smallest key.
+    int pop();
+}
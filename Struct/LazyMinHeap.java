@@ -0,0 +1,107 @@
+package Struct;
+
+import java.util.Arrays;
+
+// Binary min-heap over int ids with int keys that keeps every push instead of decreasing keys,
+// and sifts exactly like java.util.PriorityQueue. A search that pushes the same sequence as the
+// old PriorityQueue<Node> code therefore pops equal keys in the same order and returns the same
+// paths. An entry is stale once its id has been pushed again with a smaller key; stale entries
+// are dropped when they reach the top, where the old searches skipped them.
+public class LazyMinHeap implements IntPriorityQueue {
+    private int[] heap = new int[16]; // heap slot -> id
+    private int[] keys = new int[16]; // heap slot -> key
+    private int[] latest;             // id -> smallest key pushed this query, valid when stamp == epoch
+    private int[] stamp;
+    private int epoch = 1;
+    private int size;
+
+    public LazyMinHeap(int capacity) {
+        latest = new int[capacity];
+        stamp = new int[capacity];
+    }
+
+    @Override
+    public void ensureCapacity(int capacity) {
+        if (capacity <= stamp.length) return;
+        latest = new int[capacity];
+        stamp = new int[capacity];
+        epoch = 1;
+        size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        dropStale();
+        return size == 0;
+    }
+
+    // Entries in the heap, stale ones included.
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public void clear() {
+        size = 0;
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+
+    // Pushes a new entry; callers only push an id again with a smaller key.
+    @Override
+    public boolean pushOrDecrease(int id, int key) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        stamp[id] = epoch;
+        latest[id] = key;
+        siftUp(size++, id, key);
+        return true;
+    }
+
+    @Override
+    public int pop() {
+        dropStale();
+        return removeTop();
+    }
+
+    private void dropStale() {
+        while (size > 0 && keys[0] > latest[heap[0]]) removeTop();
+    }
+
+    private int removeTop() {
+        int top = heap[0];
+        int n = --size;
+        if (n > 0) siftDown(0, heap[n], keys[n]);
+        return top;
+    }
+
+    private void siftUp(int slot, int id, int key) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (key >= keys[parent]) break;
+            heap[slot] = heap[parent];
+            keys[slot] = keys[parent];
+            slot = parent;
+        }
+        heap[slot] = id;
+        keys[slot] = key;
+    }
+
+    private void siftDown(int slot, int id, int key) {
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && keys[child] > keys[right]) child = right;
+            if (key <= keys[child]) break;
+            heap[slot] = heap[child];
+            keys[slot] = keys[child];
+            slot = child;
+        }
+        heap[slot] = id;
+        keys[slot] = key;
+    }
+}
@@ -0,0 +1,57 @@
+package Struct;
+
+import java.nio.ByteBuffer;
+
+// Read-only view of a mapped .mzb file (see MazeBinary): the wall bitset and 4-bit weights are
+// read in place, so opening a maze copies nothing. Padded indices are translated to the file's
+// dense r * cols + c order; the padding border reads as WALL.
+public class MappedCellStore implements CellStore {
+    private final ByteBuffer buf; // Little-endian, absolute reads only, so safe to share
+    private final int rows, cols, stride;
+    private final int weightBase;
+
+    MappedCellStore(ByteBuffer buf, int rows, int cols) {
+        this.buf = buf;
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = cols + 2;
+        this.weightBase = (int) MazeBinary.weightOffset(rows, cols);
+    }
+
+    @Override
+    public int size() { return (rows + 2) * stride; }
+
+    @Override
+    public int weight(int idx) {
+        int dense = dense(idx);
+        if (dense < 0 || wallBit(dense)) return MazeMap.WALL;
+        int packed = buf.get(weightBase + (dense >>> 1));
+        return ((dense & 1) == 0) ? packed & 0xF : (packed >>> 4) & 0xF;
+    }
+
+    @Override
+    public boolean isWall(int idx) {
+        int dense = dense(idx);
+        return dense < 0 || wallBit(dense);
+    }
+
+    @Override
+    public void putRange(int idx, int[] values, int count) {
+        throw new UnsupportedOperationException("Mapped maze storage is read-only");
+    }
+
+    // The mapping lives outside the heap.
+    @Override
+    public long bytes() { return 0; }
+
+    // Dense cell of a padded index, or -1 on the border.
+    private int dense(int idx) {
+        int r = idx / stride - 1, c = idx % stride - 1;
+        if (r < 0 || r >= rows || c < 0 || c >= cols) return -1;
+        return r * cols + c;
+    }
+
+    private boolean wallBit(int dense) {
+        return (buf.getLong(MazeBinary.HEADER_BYTES + ((dense >>> 6) << 3)) >>> dense & 1) != 0;
+    }
+}
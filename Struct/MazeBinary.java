@@ -0,0 +1,172 @@
+package Struct;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
+// Binary maze file (.mzb), little-endian:
+//   0  int magic "MZB1"     4  int rows      8  int cols
+//   12 int startR  16 int startC  20 int goalR  24 int goalC  28 int reserved (0)
+//   32 long[] walls   ceil(rows*cols / 64) words, bit (r*cols + c) set = wall
+//   .. byte[] weights ceil(rows*cols / 2) bytes, 4 bits per cell, even cell in the low nibble
+// Open cells hold weights 0..15; walls store 0 in the weight nibble.
+public class MazeBinary {
+    public static final String EXTENSION = ".mzb";
+    public static final int MAGIC = 0x31425A4D; // "MZB1" read as a little-endian int
+    public static final int HEADER_BYTES = 32;
+    public static final int MAX_WEIGHT = 15;
+    private static final int ROW_BLOCK = 64;
+
+    // --- Layout ---
+
+    public static long wallWords(int rows, int cols) { return ((long) rows * cols + 63) >>> 6; }
+
+    public static long weightOffset(int rows, int cols) { return HEADER_BYTES + wallWords(rows, cols) * 8; }
+
+    public static long fileSize(int rows, int cols) { return weightOffset(rows, cols) + ((long) rows * cols + 1) / 2; }
+
+    // --- Writing ---
+
+    public static void write(Path path, MazeMap map) throws IOException {
+        write(path, map.rows, map.cols, map.start, map.goal, map::getWeight);
+    }
+
+    // weightAt(r, c) returns MazeMap.WALL or a weight in 0..MAX_WEIGHT.
+    public static void write(Path path, int rows, int cols, Point start, Point goal, IntBinaryOperator weightAt) throws IOException {
+        long size = fileSize(rows, cols);
+        if (size > Integer.MAX_VALUE) throw new IOException("Maze too large for one mapping: " + rows + "x" + cols);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(0, MAGIC).putInt(4, rows).putInt(8, cols);
+            buf.putInt(12, start.r).putInt(16, start.c).putInt(20, goal.r).putInt(24, goal.c).putInt(28, 0);
+
+            int wallBase = HEADER_BYTES, weightBase = (int) weightOffset(rows, cols);
+            long word = 0;
+            int nibbles = 0;
+            long cell = 0;
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++, cell++) {
+                    int w = weightAt.applyAsInt(r, c);
+                    int bit = (int) (cell & 63);
+                    if (w == MazeMap.WALL) {
+                        word |= 1L << bit;
+                        w = 0;
+                    } else if (w < 0 || w > MAX_WEIGHT) {
+                        throw new IllegalArgumentException("Weight " + w + " at (" + r + "," + c + ") does not fit in 4 bits");
+                    }
+                    if ((cell & 1) == 0) {
+                        nibbles = w;
+                    } else {
+                        buf.put(weightBase + (int) (cell >>> 1), (byte) (nibbles | (w << 4)));
+                    }
+                    if (bit == 63) {
+                        buf.putLong(wallBase + (int) ((cell >>> 6) << 3), word);
+                        word = 0;
+                    }
+                }
+            }
+            if ((cell & 63) != 0) buf.putLong(wallBase + (int) ((cell >>> 6) << 3), word);
+            if ((cell & 1) != 0) buf.put(weightBase + (int) (cell >>> 1), (byte) nibbles);
+            buf.force();
+        }
+    }
+
+    // --- Reading ---
+
+    public static boolean isBinary(String filePath) {
+        return filePath.toLowerCase().endsWith(EXTENSION);
+    }
+
+    public static MazeMap read(String filePath) throws IOException {
+        return read(filePath, MazeMap.Storage.INT);
+    }
+
+    // Maps the file and decodes it straight into the cell storage of a new MazeMap, blocks of
+    // rows in parallel on the common ForkJoinPool. Start and goal come from the header.
+    // Storage.MAPPED decodes nothing and returns view(filePath) instead.
+    public static MazeMap read(String filePath, MazeMap.Storage storage) throws IOException {
+        if (storage == MazeMap.Storage.MAPPED) return view(filePath);
+        try (FileChannel ch = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buf = map(ch);
+            int rows = buf.getInt(4), cols = buf.getInt(8);
+            int stride = cols + 2;
+            CellStore store = storage.create(rows, cols);
+            int[] border = new int[stride];
+            Arrays.fill(border, MazeMap.WALL);
+            store.putRange(0, border, stride);
+            store.putRange((rows + 1) * stride, border, stride);
+
+            int weightBase = (int) weightOffset(rows, cols);
+            int blocks = (rows + ROW_BLOCK - 1) / ROW_BLOCK;
+            IntStream.range(0, blocks).parallel().forEach(b -> {
+                int[] line = new int[stride];
+                line[0] = MazeMap.WALL;
+                line[cols + 1] = MazeMap.WALL;
+                for (int r = b * ROW_BLOCK, end = Math.min(rows, r + ROW_BLOCK); r < end; r++) {
+                    long cell = (long) r * cols;
+                    long word = buf.getLong(HEADER_BYTES + (int) ((cell >>> 6) << 3));
+                    for (int c = 1; c <= cols; c++, cell++) {
+                        int bit = (int) (cell & 63);
+                        if (bit == 0 && c > 1) word = buf.getLong(HEADER_BYTES + (int) ((cell >>> 6) << 3));
+                        if ((word >>> bit & 1) != 0) {
+                            line[c] = MazeMap.WALL;
+                        } else {
+                            int packed = buf.get(weightBase + (int) (cell >>> 1));
+                            line[c] = ((cell & 1) == 0) ? packed & 0xF : (packed >>> 4) & 0xF;
+                        }
+                    }
+                    store.putRange((r + 1) * stride, line, stride);
+                }
+            });
+
+            return new MazeMap(rows, cols, store, new Point(buf.getInt(12), buf.getInt(16)), new Point(buf.getInt(20), buf.getInt(24)));
+        }
+    }
+
+    // Zero-copy MazeMap over the mapped file: cells are read from the mapping on every access
+    // and stay valid after the channel is closed. Opening reads only the header.
+    public static MazeMap view(String filePath) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            ByteBuffer buf = map(ch);
+            int rows = buf.getInt(4), cols = buf.getInt(8);
+            return new MazeMap(rows, cols, new MappedCellStore(buf, rows, cols),
+                    new Point(buf.getInt(12), buf.getInt(16)), new Point(buf.getInt(20), buf.getInt(24)));
+        }
+    }
+
+    // Read-only little-endian mapping of a validated .mzb file.
+    static ByteBuffer map(FileChannel ch) throws IOException {
+        long size = ch.size();
+        if (size < HEADER_BYTES) throw new IOException("Not a binary maze (too short)");
+        if (size > Integer.MAX_VALUE) throw new IOException("Binary maze larger than one mapping");
+        ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.getInt(0) != MAGIC) throw new IOException("Not a binary maze (bad magic)");
+        int rows = buf.getInt(4), cols = buf.getInt(8);
+        if (rows <= 0 || cols <= 0 || fileSize(rows, cols) != size) {
+            throw new IOException("Binary maze header does not match file size");
+        }
+        checkEndpoint(buf, "start", buf.getInt(12), buf.getInt(16), rows, cols);
+        checkEndpoint(buf, "goal", buf.getInt(20), buf.getInt(24), rows, cols);
+        return buf;
+    }
+
+    private static void checkEndpoint(ByteBuffer buf, String name, int r, int c, int rows, int cols) throws IOException {
+        if (r < 0 || r >= rows || c < 0 || c >= cols) {
+            throw new IOException("Binary maze " + name + " (" + r + "," + c + ") is outside the " + rows + "x" + cols + " grid");
+        }
+        long cell = (long) r * cols + c;
+        if ((buf.getLong(HEADER_BYTES + (int) ((cell >>> 6) << 3)) >>> (cell & 63) & 1) != 0) {
+            throw new IOException("Binary maze " + name + " (" + r + "," + c + ") is a wall");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package Struct;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Process-wide cache of parsed mazes keyed by file identity (canonical path, size, mtime, storage).
+// Each entry also owns the maze's derived artifacts (landmark tables, junction graph, rendered
+// images, ...), so selecting a file again skips both parsing and preprocessing.
+// Entries are evicted least-recently-used once the parsed grids plus artifacts exceed the budget.
+// Maps that did not come from a file keep their artifacts in a weak side table instead, so they
+// live exactly as long as the map.
+public class MazeCache {
+    private static final MazeCache SHARED = new MazeCache(Runtime.getRuntime().maxMemory() / 4);
+
+    private static final class Entry {
+        final String key;
+        final MazeMap map;
+        final Map<String, Object> artifacts;
+        long bytes;
+
+        Entry(String key, MazeMap map) {
+            this.key = key;
+            this.map = map;
+            this.artifacts = new HashMap<>();
+            this.bytes = map.store.bytes();
+        }
+    }
+
+    private final long budget;
+    private long used;
+    private long hits, misses;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<MazeMap, Entry> byMap = new IdentityHashMap<>();
+    private final Map<MazeMap, Map<String, Object>> loose = new WeakHashMap<>();
+
+    public static MazeCache shared() { return SHARED; }
+
+    public MazeCache(long budgetBytes) {
+        this.budget = budgetBytes;
+    }
+
+    // --- Parsed mazes ---
+
+    public MazeMap load(String path) {
+        return load(path, MazeMap.Storage.INT);
+    }
+
+    // Returns the cached map for this file version, parsing it on a miss. Null if unreadable.
+    public MazeMap load(String path, MazeMap.Storage storage) {
+        String key = identity(path, storage);
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null) {
+                hits++;
+                return e.map;
+            }
+            misses++;
+        }
+        MazeMap map = new Reader().readMap(path, storage); // Parse outside the lock
+        if (map == null) return null;
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null) return e.map; // Another thread loaded it meanwhile
+            e = new Entry(key, map);
+            Map<String, Object> kept = loose.remove(map);
+            if (kept != null) e.artifacts.putAll(kept);
+            entries.put(key, e);
+            byMap.put(map, e);
+            used += e.bytes;
+            evict(e);
+        }
+        return map;
+    }
+
+    public synchronized void clear() {
+        for (Entry e : entries.values()) loose.put(e.map, e.artifacts);
+        entries.clear();
+        byMap.clear();
+        used = 0;
+    }
+
+    public synchronized long usedBytes() { return used; }
+
+    public synchronized long hits() { return hits; }
+
+    public synchronized long misses() { return misses; }
+
+    // --- Derived artifacts ---
+
+    // Returns the artifact called name for map, building it once with builder. sizeOf estimates its
+    // footprint for the budget. Builds for the same map are serialised; other maps are not blocked.
+    // An artifact must not hold the MazeMap itself, or the weak side table could never drop it.
+    @SuppressWarnings("unchecked")
+    public <T> T artifact(MazeMap map, String name, Function<MazeMap, T> builder, ToLongFunction<T> sizeOf) {
+        Map<String, Object> slots = slotsFor(map);
+        T value;
+        synchronized (slots) {
+            value = (T) slots.get(name);
+            if (value != null) return value;
+            value = builder.apply(map);
+            slots.put(name, value);
+        }
+        long size = sizeOf.applyAsLong(value);
+        synchronized (this) {
+            Entry e = byMap.get(map);
+            if (e != null && e.artifacts == slots) {
+                e.bytes += size;
+                used += size;
+                evict(e);
+            }
+        }
+        return value;
+    }
+
+    // Returns the artifact if it was already built, without building it.
+    @SuppressWarnings("unchecked")
+    public <T> T peekArtifact(MazeMap map, String name) {
+        Map<String, Object> slots;
+        synchronized (this) {
+            Entry e = byMap.get(map);
+            slots = (e != null) ? e.artifacts : loose.get(map);
+        }
+        if (slots == null) return null;
+        synchronized (slots) {
+            return (T) slots.get(name);
+        }
+    }
+
+    private synchronized Map<String, Object> slotsFor(MazeMap map) {
+        Entry e = byMap.get(map);
+        if (e != null) {
+            entries.get(e.key); // Counts as a use for LRU order
+            return e.artifacts;
+        }
+        return loose.computeIfAbsent(map, m -> new HashMap<>());
+    }
+
+    // Drops least recently used entries (never 'keep') until the budget holds. Artifacts of an
+    // evicted map move to the weak side table, so a map still on screen does not rebuild them.
+    private void evict(Entry keep) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (used > budget && it.hasNext()) {
+            Entry e = it.next();
+            if (e == keep) continue;
+            it.remove();
+            byMap.remove(e.map);
+            used -= e.bytes;
+            loose.put(e.map, e.artifacts);
+        }
+    }
+
+    private static String identity(String path, MazeMap.Storage storage) {
+        File f = new File(path);
+        String canonical;
+        try {
+            canonical = f.getCanonicalPath();
+        } catch (IOException e) {
+            canonical = f.getAbsolutePath();
+        }
+        return canonical + '|' + f.length() + '|' + f.lastModified() + '|' + storage;
+    }
+}
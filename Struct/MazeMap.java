@@ -1,31 +1,165 @@
 package Struct;
 public class MazeMap {
-    public int[][] grid;
+    public static final int WALL = -1;
+
     public int rows;
     public int cols;
     public Point start;
     public Point goal;
 
+    // Grid backend chosen when the map is built: INT is fastest, PACKED needs ~1/6 of the memory,
+    // TILED keeps the grid off-heap and only a bounded set of tiles resident. MAPPED reads a .mzb
+    // file in place (MappedCellStore) and has no empty store to fill, so it only applies to .mzb.
+    public enum Storage {
+        INT, PACKED, TILED, MAPPED;
+
+        // Empty store for a rows x cols maze (padded size).
+        public CellStore create(int rows, int cols) {
+            int size = (rows + 2) * (cols + 2);
+            switch (this) {
+                case MAPPED: throw new IllegalArgumentException("MAPPED storage only views .mzb files");
+                case PACKED: return new PackedCellStore(size);
+                case TILED: return new TiledCellStore(rows, cols);
+                default: return new IntCellStore(size);
+            }
+        }
+    }
+
+    // --- Flat grid: (rows+2) x (cols+2) with a guaranteed wall border ---
+    // Cell index = (r + 1) * stride + (c + 1). The border means idx + dirOffsets[d]
+    // never leaves the grid for an open cell, so the solvers need no bounds checks.
+    public final int stride;
+    public final CellStore store;
+    public final int[] dirOffsets;   // Up, Down, Left, Right (same order as the old dirs tables)
+    public final int[] denseOffsets; // Same directions in the dense r * cols + c layout
+    public int startIdx;
+    public int goalIdx;
+    private volatile int[] weightStats; // min, max, zero count over open cells; see weightStats()
+
     public MazeMap(int[][] rawData) {
-        this.rows = rawData.length;
-        this.cols = rawData[0].length;
-        this.grid = rawData;
+        this(rawData, Storage.INT);
+    }
+
+    public MazeMap(int[][] rawData, Storage storage) {
+        this(rawData.length, rawData[0].length, pad(rawData, storage));
+    }
+
+    // Wraps an already padded (rows + 2) x (cols + 2) cell array without copying it.
+    public MazeMap(int rows, int cols, int[] cells) {
+        this(rows, cols, new IntCellStore(cells));
+    }
 
+    // The caller is responsible for leaving the border cells as WALL.
+    public MazeMap(int rows, int cols, CellStore store) {
+        this(rows, cols, store, new Point(1, 1), new Point(rows - 2, cols - 2));
+    }
 
-        this.start = new Point(1, 1);
-        this.goal = new Point(rows - 2, cols - 2);
-        if (grid[start.r][start.c] != 0 || grid[goal.r][goal.c] != 0) {
+    // As above, with start and goal given (used by formats that store them).
+    public MazeMap(int rows, int cols, CellStore store, Point start, Point goal) {
+        if (store.size() != (rows + 2) * (cols + 2)) {
+            throw new IllegalArgumentException("Cell storage does not match " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = cols + 2;
+        this.store = store;
+        this.dirOffsets = new int[] { -stride, stride, -1, 1 };
+        this.denseOffsets = new int[] { -cols, cols, -1, 1 };
+
+        this.start = start;
+        this.goal = goal;
+        this.startIdx = index(start.r, start.c);
+        this.goalIdx = index(goal.r, goal.c);
+        if (getWeight(start.r, start.c) != 0 || getWeight(goal.r, goal.c) != 0) {
             System.err.println("Warning Start and Goal Wrong Point.");
         }
     }
 
+    // --- Weight range, scanned on first use so that opening a mapped maze touches no cells ---
+
+    // Over open cells only.
+    public int minWeight() { return weightStats()[0]; }
+
+    public int maxWeight() { return weightStats()[1]; }
+
+    // Open cells that cost nothing to enter (normally just S and G).
+    public int zeroWeightCells() { return weightStats()[2]; }
+
+    private int[] weightStats() {
+        int[] stats = weightStats;
+        if (stats != null) return stats;
+        int lo = Integer.MAX_VALUE, hi = 0, zeros = 0;
+        for (int idx = 0, n = store.size(); idx < n; idx++) {
+            int w = store.weight(idx);
+            if (w == WALL) continue;
+            if (w < lo) lo = w;
+            if (w > hi) hi = w;
+            if (w <= 0) zeros++;
+        }
+        stats = new int[] { (lo == Integer.MAX_VALUE) ? 0 : lo, hi, zeros };
+        weightStats = stats; // Racing threads compute the same values
+        return stats;
+    }
+
+    private static CellStore pad(int[][] rawData, Storage storage) {
+        int rows = rawData.length, cols = rawData[0].length, stride = cols + 2;
+        CellStore store = storage.create(rows, cols);
+        int[] line = new int[stride];
+        java.util.Arrays.fill(line, WALL);
+        store.putRange(0, line, stride);
+        store.putRange((rows + 1) * stride, line, stride);
+        for (int r = 0; r < rows; r++) {
+            int[] row = rawData[r];
+            java.util.Arrays.fill(line, WALL);
+            System.arraycopy(row, 0, line, 1, Math.min(row.length, cols));
+            store.putRange((r + 1) * stride, line, stride);
+        }
+        return store;
+    }
+
+    // --- Row/column view (kept for existing callers) ---
+
     public boolean isValid(int r, int c) {
         if (r < 0 || c < 0 || r >= rows || c >= cols) return false;
-        if (grid[r][c] == -1) return false;
-        return true;
+        return !store.isWall(index(r, c));
     }
 
     public int getWeight(int r, int c) {
-        return grid[r][c];
+        return store.weight(index(r, c));
+    }
+
+    // --- Cell-index API ---
+
+    public int size() { return store.size(); }
+
+    public int index(int r, int c) { return (r + 1) * stride + (c + 1); }
+
+    public int rowOf(int idx) { return idx / stride - 1; }
+
+    public int colOf(int idx) { return idx % stride - 1; }
+
+    public Point toPoint(int idx) { return new Point(rowOf(idx), colOf(idx)); }
+
+    // Dense row-major index (r * cols + c) used by chromosome gene arrays.
+    public int denseOf(int idx) { return rowOf(idx) * cols + colOf(idx); }
+
+    public boolean isOpen(int idx) { return !store.isWall(idx); }
+
+    // Weight of the cell, or WALL.
+    public int weight(int idx) { return store.weight(idx); }
+
+    public int neighbor(int idx, int dir) { return idx + dirOffsets[dir]; }
+
+    // Weights of the four neighbours of idx in direction order (WALL where blocked).
+    public void neighborWeights(int idx, int[] out) { store.neighborWeights(idx, dirOffsets, out); }
+
+    // Writes the open neighbours of idx into out (length >= 4) and returns how many there are.
+    public int neighbors(int idx, int[] out) {
+        int n = 0;
+        for (int d = 0; d < 4; d++) {
+            int nIdx = idx + dirOffsets[d];
+            if (!store.isWall(nIdx)) out[n++] = nIdx;
+        }
+        return n;
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,14 @@ package Struct;
 
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 public class Reader {
 
@@ -87,6 +92,241 @@ public class Reader {
         }
     }
 
+    // --- MEMORY-MAPPED PARALLEL LOADER ---
+    // Same token rules as read(), but the file is mapped in newline-aligned chunks and parsed
+    // on the common ForkJoinPool straight into the cell storage of a MazeMap.
+    // Pass 1 counts the rows of every chunk, a prefix sum gives each chunk its first row,
+    // pass 2 writes the cells. Returns null when the file cannot be read or has no rows.
+    // Binary .mzb files are handed to MazeBinary.
+
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long LF8 = 0x0A0A0A0A0A0A0A0AL;
+    private static final long CR8 = 0x0D0D0D0D0D0D0D0DL;
+    private static final long WALL8 = 0x2323232323232323L; // "########"
+
+    public MazeMap readMap(String filePath) {
+        return readMap(filePath, MazeMap.Storage.INT);
+    }
+
+    public MazeMap readMap(String filePath, MazeMap.Storage storage) {
+        if (storage == MazeMap.Storage.MAPPED && !MazeBinary.isBinary(filePath)) {
+            System.err.println("MAPPED storage needs a .mzb file; loading " + filePath + " as PACKED");
+            storage = MazeMap.Storage.PACKED;
+        }
+        if (MazeBinary.isBinary(filePath)) {
+            try {
+                return MazeBinary.read(filePath, storage);
+            } catch (IOException e) {
+                System.err.println("File could not be read: " + e.getMessage());
+                return null;
+            }
+        }
+        try (FileChannel ch = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = ch.size();
+            long[] bounds = chunkBounds(ch, size);
+            int k = bounds.length - 1;
+            ByteBuffer[] chunks = new ByteBuffer[k];
+            for (int i = 0; i < k; i++) {
+                chunks[i] = ch.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i])
+                              .order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            int[] firstRow = new int[k + 1];
+            IntStream.range(0, k).parallel().forEach(i -> firstRow[i + 1] = countRows(chunks[i]));
+            int cols = 0;
+            for (int i = 0; i < k; i++) {
+                if (cols == 0 && firstRow[i + 1] > 0) cols = firstRowWidth(chunks[i]);
+                firstRow[i + 1] += firstRow[i];
+            }
+            int rows = firstRow[k];
+            if (rows == 0) {
+                System.err.println("File contains no maze rows: " + filePath);
+                return null;
+            }
+
+            int stride = cols + 2;
+            CellStore store = storage.create(rows, cols);
+            int[] border = new int[stride];
+            Arrays.fill(border, MazeMap.WALL);
+            store.putRange(0, border, stride);
+            store.putRange((rows + 1) * stride, border, stride);
+            final int width = cols;
+            IntStream.range(0, k).parallel().forEach(i -> parseChunk(chunks[i], firstRow[i], width, store));
+            return new MazeMap(rows, cols, store);
+
+        } catch (IOException e) {
+            System.err.println("File could not be read: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Chunk start offsets (plus size at the end); every boundary sits just after a newline byte.
+    private static long[] chunkBounds(FileChannel ch, long size) throws IOException {
+        int parts = Runtime.getRuntime().availableProcessors() * 4;
+        long target = Math.max(MIN_CHUNK, size / parts + 1);
+        target = Math.min(target, Integer.MAX_VALUE - 8192); // A single mapping is limited to 2 GB
+        long[] bounds = new long[16];
+        int n = 0;
+        bounds[n++] = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long pos = 0;
+        while (size - pos > target) {
+            long at = pos + target, cut = -1;
+            while (cut < 0 && at < size) {
+                probe.clear();
+                int got = ch.read(probe, at);
+                if (got <= 0) break;
+                for (int j = 0; j < got; j++) {
+                    byte b = probe.get(j);
+                    if (b == '\n' || b == '\r') { cut = at + j + 1; break; }
+                }
+                at += got;
+            }
+            if (cut < 0 || cut >= size) break;
+            if (n == bounds.length) bounds = Arrays.copyOf(bounds, n * 2);
+            bounds[n++] = cut;
+            pos = cut;
+        }
+        if (n == bounds.length) bounds = Arrays.copyOf(bounds, n + 1);
+        bounds[n++] = size;
+        return Arrays.copyOf(bounds, n);
+    }
+
+    // A row is a newline-delimited segment holding at least one token. Once the current segment
+    // has a token, whole 8-byte words without '\n'/'\r' are skipped.
+    private static int countRows(ByteBuffer buf) {
+        int n = buf.limit(), i = 0, rows = 0;
+        boolean token = false;
+        while (i < n) {
+            if (token && i + 8 <= n && !hasNewline(buf.getLong(i))) { i += 8; continue; }
+            byte b = buf.get(i++);
+            if (b == '\n' || b == '\r') {
+                if (token) rows++;
+                token = false;
+            } else if (!token && isTokenStart(b)) {
+                token = true;
+            }
+        }
+        if (token) rows++;
+        return rows;
+    }
+
+    private static int firstRowWidth(ByteBuffer buf) {
+        int n = buf.limit(), i = 0, count = 0;
+        while (i < n) {
+            byte b = buf.get(i);
+            if (b == '\n' || b == '\r') {
+                if (count > 0) break;
+                i++;
+            } else if ((b >= '0' && b <= '9') || b == '-') {
+                count++;
+                if (b == '-') i++;
+                while (i < n && buf.get(i) >= '0' && buf.get(i) <= '9') i++;
+            } else {
+                if (b == '#' || b == 'S' || b == 'G') count++;
+                i++;
+            }
+        }
+        return count;
+    }
+
+    // Writes every row of the chunk into the store starting at padded row 'row' + 1, including its
+    // left/right border; extra tokens beyond cols are dropped and short rows end in walls.
+    private static void parseChunk(ByteBuffer buf, int row, int cols, CellStore store) {
+        int stride = cols + 2;
+        int[] line = new int[stride]; // Padded row being assembled; column c lives at line[1 + c]
+        int n = buf.limit(), i = 0;
+        int at = (row + 1) * stride;       // Store index of the current padded row
+        int c = 0;                         // Tokens seen in the current row
+        while (i < n) {
+            byte b = buf.get(i);
+            if (b == '"') {
+                // Quoted one- and two-digit weights ("7", "10") decoded from a single word.
+                if (i + 8 <= n) {
+                    long w = buf.getLong(i);
+                    int d1 = (int) (w >>> 8) & 0xFF, d2 = (int) (w >>> 16) & 0xFF;
+                    if (isDigit(d1)) {
+                        if (d2 == '"') {
+                            if (c < cols) line[1 + c] = d1 - '0';
+                            c++;
+                            i += 3;
+                            continue;
+                        }
+                        if (isDigit(d2) && ((int) (w >>> 24) & 0xFF) == '"') {
+                            if (c < cols) line[1 + c] = (d1 - '0') * 10 + (d2 - '0');
+                            c++;
+                            i += 4;
+                            continue;
+                        }
+                    }
+                }
+                i++;
+                continue;
+            }
+            if (b == '#') {
+                // Runs of walls are the bulk of most files: take them eight at a time.
+                if (i + 8 <= n && buf.getLong(i) == WALL8) {
+                    int take = Math.min(8, cols - c);
+                    if (take > 0) Arrays.fill(line, 1 + c, 1 + c + take, MazeMap.WALL);
+                    c += 8;
+                    i += 8;
+                    continue;
+                }
+                if (c < cols) line[1 + c] = MazeMap.WALL;
+                c++;
+                i++;
+                continue;
+            }
+            if ((b >= '0' && b <= '9') || b == '-') {
+                int val = 0;
+                boolean negative = (b == '-');
+                if (negative) i++;
+                byte d;
+                while (i < n && (d = buf.get(i)) >= '0' && d <= '9') {
+                    val = (val * 10) + (d - '0');
+                    i++;
+                }
+                if (c < cols) line[1 + c] = negative ? -val : val;
+                c++;
+                continue;
+            }
+            if (b == '\n' || b == '\r') {
+                if (c > 0) {
+                    endRow(store, line, at, c, cols);
+                    at += stride;
+                    c = 0;
+                }
+            } else if (b == 'S' || b == 'G') {
+                if (c < cols) line[1 + c] = 0;
+                c++;
+            }
+            i++;
+        }
+        if (c > 0) endRow(store, line, at, c, cols);
+    }
+
+    private static void endRow(CellStore store, int[] line, int at, int count, int cols) {
+        if (count < cols) Arrays.fill(line, 1 + count, 1 + cols, MazeMap.WALL);
+        line[0] = MazeMap.WALL;
+        line[cols + 1] = MazeMap.WALL;
+        store.putRange(at, line, cols + 2);
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isTokenStart(byte b) {
+        return (b >= '0' && b <= '9') || b == '-' || b == '#' || b == 'S' || b == 'G';
+    }
+
+    private static boolean hasNewline(long w) {
+        long lf = w ^ LF8, cr = w ^ CR8;
+        return ((((lf - ONES) & ~lf) | ((cr - ONES) & ~cr)) & HIGHS) != 0;
+    }
+
     // --- FAST HELPER CLASSES (To avoid ArrayList overhead) ---
 
     // Resizable array for integers (a single row)
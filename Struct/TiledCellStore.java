@@ -0,0 +1,230 @@
+package Struct;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+// Off-heap grid for mazes that should not live on the Java heap at all.
+// The padded grid is cut into square tiles of TILE x TILE cells, one byte per cell, stored
+// tile after tile in a temporary file. At most 'budget' tiles are resident, each in its own
+// direct buffer; a miss loads the tile and evicts the least recently used one (writing it
+// back if loaders changed it). Byte 255 is a wall, 254 marks a weight kept in the escape table.
+//
+// Reads take an optimistic StampedLock stamp and only fall back to the write lock on a miss,
+// so concurrent searches on a warm cache never block each other.
+public class TiledCellStore implements CellStore {
+    public static final int TILE_SHIFT = 7; // 128 x 128 cells = 16 KB per tile
+    public static final int TILE = 1 << TILE_SHIFT;
+    public static final int DEFAULT_BUDGET = 1024;
+
+    private static final int WALL_BYTE = 255;
+    private static final int ESCAPE = 254;
+    private static final int TILE_BYTES = TILE * TILE;
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final int size;
+    private final int stride;
+    private final int tilesX;
+    private final int[] tileSlot;     // tile -> resident slot, -1 when not loaded
+    private final int[] slotTile;     // slot -> tile, -1 when free
+    private final long[] lastUse;     // slot -> miss count when it was last touched
+    private final boolean[] dirty;
+    private final ByteBuffer[] slots;
+    private final Map<Integer, Integer> escapes = new HashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private final FileChannel file;
+    private long misses;
+
+    public TiledCellStore(int rows, int cols) {
+        this(rows, cols, DEFAULT_BUDGET);
+    }
+
+    public TiledCellStore(int rows, int cols, int budget) {
+        this.stride = cols + 2;
+        this.size = (rows + 2) * stride;
+        this.tilesX = (stride + TILE - 1) >>> TILE_SHIFT;
+        int tilesY = (rows + 2 + TILE - 1) >>> TILE_SHIFT;
+        int tiles = tilesX * tilesY;
+        budget = Math.max(1, Math.min(budget, tiles));
+
+        this.tileSlot = new int[tiles];
+        java.util.Arrays.fill(tileSlot, -1);
+        this.slotTile = new int[budget];
+        java.util.Arrays.fill(slotTile, -1);
+        this.lastUse = new long[budget];
+        this.dirty = new boolean[budget];
+        this.slots = new ByteBuffer[budget];
+        for (int s = 0; s < budget; s++) slots[s] = ByteBuffer.allocateDirect(TILE_BYTES);
+
+        try {
+            Path path = Files.createTempFile("maze", ".tiles");
+            this.file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create tile file", e);
+        }
+        FileChannel ch = file;
+        CLEANER.register(this, () -> { try { ch.close(); } catch (IOException ignored) { } });
+    }
+
+    @Override
+    public int size() { return size; }
+
+    public int residentBudget() { return slots.length; }
+
+    public long misses() { return misses; }
+
+    // --- Reads ---
+
+    @Override
+    public int weight(int idx) {
+        int r = idx / stride, c = idx - r * stride;
+        int tile = (r >>> TILE_SHIFT) * tilesX + (c >>> TILE_SHIFT);
+        int off = ((r & (TILE - 1)) << TILE_SHIFT) | (c & (TILE - 1));
+        long stamp = lock.tryOptimisticRead();
+        int s = tileSlot[tile];
+        if (s >= 0) {
+            int b = slots[s].get(off) & 0xFF;
+            if (lock.validate(stamp)) {
+                touch(s);
+                return decode(b, idx);
+            }
+        }
+        return decode(readLocked(tile, off), idx);
+    }
+
+    @Override
+    public boolean isWall(int idx) { return weight(idx) == MazeMap.WALL; }
+
+    // All four neighbours come from idx's own tile unless idx sits on the tile's edge,
+    // so a search step costs one tile lookup instead of four.
+    @Override
+    public void neighborWeights(int idx, int[] offsets, int[] out) {
+        int r = idx / stride, c = idx - r * stride;
+        int tr = r & (TILE - 1), tc = c & (TILE - 1);
+        if (tr == 0 || tr == TILE - 1 || tc == 0 || tc == TILE - 1) {
+            for (int d = 0; d < 4; d++) out[d] = weight(idx + offsets[d]);
+            return;
+        }
+        int tile = (r >>> TILE_SHIFT) * tilesX + (c >>> TILE_SHIFT);
+        int off = (tr << TILE_SHIFT) | tc;
+        long stamp = lock.tryOptimisticRead();
+        int s = tileSlot[tile];
+        if (s >= 0) {
+            ByteBuffer buf = slots[s];
+            int up = buf.get(off - TILE) & 0xFF, down = buf.get(off + TILE) & 0xFF;
+            int left = buf.get(off - 1) & 0xFF, right = buf.get(off + 1) & 0xFF;
+            if (lock.validate(stamp)) {
+                touch(s);
+                // MazeMap direction order: Up, Down, Left, Right
+                out[0] = decode(up, idx + offsets[0]);
+                out[1] = decode(down, idx + offsets[1]);
+                out[2] = decode(left, idx + offsets[2]);
+                out[3] = decode(right, idx + offsets[3]);
+                return;
+            }
+        }
+        for (int d = 0; d < 4; d++) out[d] = weight(idx + offsets[d]);
+    }
+
+    // Marks the slot as used in the current miss epoch; written only when it changes so
+    // warm reads stay free of shared stores.
+    private void touch(int s) {
+        long epoch = misses;
+        if (lastUse[s] != epoch) lastUse[s] = epoch;
+    }
+
+    private int decode(int b, int idx) {
+        if (b == WALL_BYTE) return MazeMap.WALL;
+        if (b == ESCAPE) return escapes.get(idx);
+        return b;
+    }
+
+    private int readLocked(int tile, int off) {
+        long stamp = lock.writeLock();
+        try {
+            return slots[residentSlot(tile)].get(off) & 0xFF;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // --- Writes ---
+
+    @Override
+    public void putRange(int idx, int[] values, int count) {
+        long stamp = lock.writeLock();
+        try {
+            int i = 0;
+            while (i < count) {
+                int cell = idx + i;
+                int r = cell / stride, c = cell - r * stride;
+                int run = Math.min(count - i, TILE - (c & (TILE - 1)));
+                run = Math.min(run, stride - c); // Stay within this grid row
+                int s = residentSlot((r >>> TILE_SHIFT) * tilesX + (c >>> TILE_SHIFT));
+                ByteBuffer buf = slots[s];
+                int off = ((r & (TILE - 1)) << TILE_SHIFT) | (c & (TILE - 1));
+                for (int j = 0; j < run; j++, i++) {
+                    int w = values[i];
+                    int b;
+                    if (w == MazeMap.WALL) b = WALL_BYTE;
+                    else if (w >= 0 && w < ESCAPE) b = w;
+                    else { escapes.put(idx + i, w); b = ESCAPE; }
+                    buf.put(off + j, (byte) b);
+                }
+                dirty[s] = true;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // --- Tile cache (caller holds the write lock) ---
+
+    private int residentSlot(int tile) {
+        int s = tileSlot[tile];
+        if (s >= 0) {
+            lastUse[s] = misses;
+            return s;
+        }
+        misses++;
+        for (int i = 0; i < slots.length; i++) {
+            if (slotTile[i] < 0) { s = i; break; }
+            if (s < 0 || lastUse[i] < lastUse[s]) s = i;
+        }
+        try {
+            int old = slotTile[s];
+            ByteBuffer buf = slots[s];
+            if (old >= 0) {
+                if (dirty[s]) {
+                    buf.clear();
+                    while (buf.hasRemaining()) file.write(buf, (long) old * TILE_BYTES + buf.position());
+                }
+                tileSlot[old] = -1;
+            }
+            buf.clear();
+            while (buf.hasRemaining()) {
+                if (file.read(buf, (long) tile * TILE_BYTES + buf.position()) < 0) break;
+            }
+            while (buf.hasRemaining()) buf.put((byte) 0); // Never written: open, weight 0
+        } catch (IOException e) {
+            throw new UncheckedIOException("Tile " + tile + " could not be paged", e);
+        }
+        slotTile[s] = tile;
+        tileSlot[tile] = s;
+        dirty[s] = false;
+        lastUse[s] = misses;
+        return s;
+    }
+
+    @Override
+    public long bytes() { return (long) slots.length * TILE_BYTES + 4L * (tileSlot.length + 4 * slots.length); }
+}
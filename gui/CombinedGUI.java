@@ -2,24 +2,24 @@ package gui;
 import javax.swing.*;
 
 import GA_DIjksDecoder.DijksChromosome;
-import GA_DIjksDecoder.DijksDecoder;
 import GA_DIjksDecoder.DijksGA;
 
 import GA_StocasticDecoder.StocasticChromosome;
 import GA_StocasticDecoder.StocasticGA;
-import GA_StocasticDecoder.StocasticGlobalKnowledge;
 
 import GA_DepthFirstSearch.DFSChromosome;
 import GA_DepthFirstSearch.DFSGA;
-import GA_DepthFirstSearch.DFSGlobalKnowledge;
 
+import MazeSolverAlgo.DeadEndMap;
 import MazeSolverAlgo.MyAlgorithm;
 
+import Struct.DeadEndKnowledge;
+import Struct.MazeCache;
 import Struct.MazeMap;
 import Struct.Point;
-import Struct.Reader;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.List;
 import java.util.ArrayList;
@@ -91,6 +91,7 @@ public class CombinedGUI extends JFrame {
     private double gaCrossoverRate = 0.9;
     private int gaElitismCount = 10;
     private int gaMaxGenerations = 1000;
+    private boolean gaStagedEvaluation = true; // Screen offspring with a cheap partial decode first
     //private int gaMutationMode = 0; // 0 for Dijk, Hybrid for SCT
     private int simulationSpeed = 20; 
     private int earlyStopStagnationLimit = gaMaxGenerations;
@@ -159,14 +160,22 @@ public class CombinedGUI extends JFrame {
         else fileChooser.setCurrentDirectory(new File("."));
         
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            // Assuming Reader/Mazereader are compatible
-            Reader r = new Reader(); 
-            int[][] rawData = r.read(fileChooser.getSelectedFile().getAbsolutePath());
-            this.currentMap = new MazeMap(rawData);
-            
-            resetAllData();
-            
-            if (currentMap != null) buildAndShowMaze(currentMap);
+            String path = fileChooser.getSelectedFile().getAbsolutePath();
+            // Parse off the EDT so large files don't freeze the window
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            new Thread(() -> {
+                MazeMap map = MazeCache.shared().load(path);
+                SwingUtilities.invokeLater(() -> {
+                    setCursor(Cursor.getDefaultCursor());
+                    if (map == null) {
+                        JOptionPane.showMessageDialog(this, "Could not load maze: " + path, "Error", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    this.currentMap = map;
+                    resetAllData();
+                    buildAndShowMaze(currentMap);
+                });
+            }).start();
         }
     }
 
@@ -192,48 +201,44 @@ public class CombinedGUI extends JFrame {
         
         lastRunMode = LastRun.NONE;
         
-        // ** IMPORTANT: Initialize GlobalKnowledge for SCT **
+        // Learned dead-end knowledge belongs to each GA run; only the static set exists up front
         if (currentMap != null) {
-            StocasticGlobalKnowledge.init(currentMap.rows, currentMap.cols);
-            DFSGlobalKnowledge.init(currentMap.rows, currentMap.cols);
             // Pre-calculate global dead ends for visualization
-            lastGlobalDeadEndsSCT = calculateGlobalDeadEndsPointsSCT();
+            lastGlobalDeadEndsSCT = calculateGlobalDeadEndsPointsSCT(null);
         }
     }
 
-    private List<Point> calculateGlobalDeadEndsPointsSCT() {
+    // Statically filled dead ends (computed once per maze) plus whatever the SCT decoders have
+    // learned on top of them during this run (knowledge is null before a run starts).
+    private List<Point> calculateGlobalDeadEndsPointsSCT(DeadEndKnowledge knowledge) {
         List<Point> currentDeadEnds = new ArrayList<>();
         if (currentMap == null) return currentDeadEnds;
-        
-        for(int r = 0; r < currentMap.rows; r++) {
-            for(int c = 0; c < currentMap.cols; c++) {
-                // Skip Start/Goal
-                if ((r == currentMap.start.r && c == currentMap.start.c) || 
-                    (r == currentMap.goal.r && c == currentMap.goal.c)) continue;
-
-                if(StocasticGlobalKnowledge.isDeadEnd(r, c)) {
-                    currentDeadEnds.add(new Point(r, c)); 
-                }
-            }
-        }
+        MazeMap map = currentMap;
+        DeadEndMap filled = DeadEndMap.forMap(map);
+        currentDeadEnds.addAll(MazeCache.shared().artifact(map, "gui.deadEndPoints", filled::points, pts -> 32L * pts.size()));
+        if (knowledge == null) return currentDeadEnds;
+
+        knowledge.forEach(dense -> {
+            int r = dense / map.cols, c = dense % map.cols;
+            // Skip Start/Goal and cells already in the static set
+            if ((r == map.start.r && c == map.start.c) || 
+                (r == map.goal.r && c == map.goal.c)) return;
+            if (!filled.isDeadEnd(map.index(r, c))) currentDeadEnds.add(new Point(r, c));
+        });
         return currentDeadEnds;
     }
 
-    private List<Point> calculateGlobalDeadEndsDFS() {
+    private List<Point> calculateGlobalDeadEndsDFS(DeadEndKnowledge knowledge) {
         List<Point> currentDeadEnds = new ArrayList<>();
         if (currentMap == null) return currentDeadEnds;
-        
-        for(int r = 0; r < currentMap.rows; r++) {
-            for(int c = 0; c < currentMap.cols; c++) {
-                if ((r == currentMap.start.r && c == currentMap.start.c) || 
-                    (r == currentMap.goal.r && c == currentMap.goal.c)) continue;
-
-                // Check DFSKnowledge instead of Stocastic
-                if(DFSGlobalKnowledge.isDeadEnd(r, c)) {
-                    currentDeadEnds.add(new Point(r, c)); 
-                }
-            }
-        }
+        MazeMap map = currentMap;
+
+        knowledge.forEach(dense -> {
+            int r = dense / map.cols, c = dense % map.cols;
+            if ((r == map.start.r && c == map.start.c) || 
+                (r == map.goal.r && c == map.goal.c)) return;
+            currentDeadEnds.add(new Point(r, c));
+        });
         return currentDeadEnds;
     }
 
@@ -248,9 +253,12 @@ public class CombinedGUI extends JFrame {
         
         mazeCanvas.setZoom(initialZoom);
 
+        MazeRenderPanel canvas = mazeCanvas;
         new Thread(() -> {
-            mazeCanvas.renderBaseMap(map); 
-            SwingUtilities.invokeLater(mazeCanvas::repaint);
+            BufferedImage base = MazeCache.shared().artifact(map, "gui.baseImage", MazeRenderPanel::renderBase,
+                    img -> 4L * img.getWidth() * img.getHeight());
+            canvas.setBaseImage(base);
+            SwingUtilities.invokeLater(canvas::repaint);
         }).start();
         
         mazeScrollPane = new JScrollPane(mazeCanvas);
@@ -651,6 +659,7 @@ public class CombinedGUI extends JFrame {
         
         Thread gaThread = new Thread(() -> {
             DijksGA ga = new DijksGA(map, gaPopSize, gaMutationRate, gaCrossoverRate, gaElitismCount);
+            ga.setStagedEvaluation(gaStagedEvaluation);
             ArrayList<DijksChromosome> population = ga.initPopulation(null);
             
             double lastBestFitness = Double.MAX_VALUE;
@@ -661,7 +670,7 @@ public class CombinedGUI extends JFrame {
                 population = ga.evolve(population, false, 0); // 0 = standard logic
                 Collections.sort(population);
                 DijksChromosome best = population.get(0);
-                List<Point> path = DijksDecoder.getPath(map, best, true);
+                List<Point> path = ga.decoder.path(map, best, true);
                 List<Point> visualPath = new ArrayList<>(path);
                 final double currentFit = best.fitness;
                 final int currentLen = path.size();
@@ -730,6 +739,7 @@ public class CombinedGUI extends JFrame {
 
         Thread gaThread = new Thread(() -> {
             StocasticGA ga = new StocasticGA(map, gaPopSize, gaMutationRate, gaCrossoverRate, gaElitismCount);
+            ga.setStagedEvaluation(gaStagedEvaluation);
             ArrayList<StocasticChromosome> population = ga.initPopulation();
             
             double lastBestFitness = Double.MAX_VALUE;
@@ -742,7 +752,7 @@ public class CombinedGUI extends JFrame {
                 StocasticChromosome best = population.get(0);
                 
 
-                List<Point> calculatedDeadEnds = calculateGlobalDeadEndsPointsSCT();
+                List<Point> calculatedDeadEnds = calculateGlobalDeadEndsPointsSCT(ga.knowledge);
                 List<Point> visualPath = new ArrayList<>(best.path);
                 final double currentFit = best.fitness;
                 final int currentLen = visualPath.size();
@@ -752,7 +762,7 @@ public class CombinedGUI extends JFrame {
                             .setLoading(String.format("Stopped (Fit: %.2f, Step: %d)", currentFit, currentLen)));
                     break;
                 }
-                List<Point> blockPoints = convertBlocksToPoints(best.junctionBlocks, map);
+                List<Point> blockPoints = convertBlocksToPoints(best.junctionBlocks, map, ga.knowledge);
                 
                 synchronized(historyGASCTPath) {
                     historyGASCTPath.add(visualPath);
@@ -814,6 +824,7 @@ public class CombinedGUI extends JFrame {
     
         Thread gaThread = new Thread(() -> {
             DFSGA ga = new DFSGA(map, gaPopSize, gaMutationRate, gaCrossoverRate, gaElitismCount);
+            ga.setStagedEvaluation(gaStagedEvaluation);
             ArrayList<DFSChromosome> population = ga.initPopulation();
             
             double lastBestFitness = Double.MAX_VALUE;
@@ -826,12 +837,12 @@ public class CombinedGUI extends JFrame {
                 DFSChromosome best = population.get(0);
                 
                 // --- ADDED: Calculate Dead Ends Live ---
-                List<Point> currentDeadEnds = calculateGlobalDeadEndsDFS();
+                List<Point> currentDeadEnds = calculateGlobalDeadEndsDFS(ga.knowledge);
                 // ---------------------------------------
 
                 
                 List<Point> visualPath = new ArrayList<>(best.path);
-                List<Point> blockPoints = convertBlocksToPoints(best.junctionBlocks, map);
+                List<Point> blockPoints = convertBlocksToPoints(best.junctionBlocks, map, ga.knowledge);
                 final double currentFit = best.fitness;
                 final int currentLen = visualPath.size();
                 if (stopRequested) {
@@ -892,14 +903,14 @@ public class CombinedGUI extends JFrame {
         gaThread.start();
     }
 
-    private List<Point> convertBlocksToPoints(boolean[] blocks, MazeMap map) {
+    private List<Point> convertBlocksToPoints(boolean[] blocks, MazeMap map, DeadEndKnowledge knowledge) {
         List<Point> points = new ArrayList<>();
         if (blocks == null) return points;
         for (int i = 0; i < blocks.length; i++) {
             if (blocks[i]) {
                 int r = i / map.cols;
                 int c = i % map.cols;
-                if (!StocasticGlobalKnowledge.isDeadEnd(r, c)) {
+                if (knowledge == null || !knowledge.isDeadEnd(r, c)) {
                     points.add(new Point(c, r));
                 }
             }
@@ -58,18 +58,31 @@ public class MazeRenderPanel extends JPanel {
 
         // Draw the walls once (1000x1000 pixels max)
         public void renderBaseMap(MazeMap map) {
-            // Speed Trick: Iterate pixels directly
-             for (int r = 0; r < rows; r++) {
-                for (int c = 0; c < cols; c++) {
+            setBaseImage(renderBase(map));
+        }
+
+        // Walls-only image of a maze at 1:1. Never drawn on, so one image can be shared
+        // by every panel showing the same map (MazeCache keeps it as an artifact).
+        public static BufferedImage renderBase(MazeMap map) {
+            BufferedImage image = new BufferedImage(map.cols, map.rows, BufferedImage.TYPE_INT_RGB);
+            int[] line = new int[map.cols];
+            for (int r = 0; r < map.rows; r++) {
+                for (int c = 0; c < map.cols; c++) {
                     int val = map.getWeight(r, c);
                     int color = 0xFFFFFFFF; // White (Path)
                     if (val == -1) color = 0xFF000000; // Black (Wall)
                     else if (val == -2) color = 0xFFFF0000; // Red
                     else if (val == 0) color = 0xFF00FF00; // Green
-                    baseImage.setRGB(c, r, color);
+                    line[c] = color;
                 }
+                image.setRGB(0, r, map.cols, 1, line, 0, map.cols);
             }
-            resetToBase(); 
+            return image;
+        }
+
+        public void setBaseImage(BufferedImage image) {
+            baseImage = image;
+            resetToBase();
         }
 
         public void resetToBase() {